@@ -0,0 +1,22 @@
+package projekt;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Startet JMH mit den uebergebenen Kommandozeilenoptionen und schaltet immer den GC-Profiler ein,
+ * damit neben der Laufzeit auch die Allokationsrate (gc.alloc.rate.norm, Bytes pro Operation) berichtet wird.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,74 @@
+package projekt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    private Integer[] values;
+    private List<Integer> list;
+
+    @Setup
+    public void setup() {
+        values = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = i;
+        }
+        list = List.list(values);
+    }
+
+    @Benchmark
+    public List<Integer> construct() {
+        return List.list(values);
+    }
+
+    @Benchmark
+    public List<Integer> map() {
+        return list.map(x -> x + 1);
+    }
+
+    @Benchmark
+    public List<Integer> filter() {
+        return list.filter(x -> x % 2 == 0);
+    }
+
+    @Benchmark
+    public List<Integer> reverse() {
+        return List.reverse(list);
+    }
+
+    @Benchmark
+    public Integer foldl() {
+        return List.foldl(x -> y -> x + y, 0, list);
+    }
+
+    @Benchmark
+    public Integer foldr() {
+        return List.foldr(x -> y -> x + y, 0, list);
+    }
+
+    @Benchmark
+    public List<Integer> append() {
+        return List.append(list, list);
+    }
+}
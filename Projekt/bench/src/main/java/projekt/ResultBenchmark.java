@@ -0,0 +1,45 @@
+package projekt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultBenchmark {
+
+    public int value = 42;
+    public String message = "invalid record";
+
+    @Benchmark
+    public Integer success() {
+        return Result.success(value).map(x -> x + 1).getOrElse(0);
+    }
+
+    @Benchmark
+    public Integer failure() {
+        return Result.<Integer>failure(message).map(x -> x + 1).getOrElse(0);
+    }
+
+    @Benchmark
+    public Integer stacklessFailure() {
+        return Result.<Integer>stacklessFailure(message).map(x -> x + 1).getOrElse(0);
+    }
+
+    @Benchmark
+    public Integer empty() {
+        return Result.<Integer>empty().map(x -> x + 1).getOrElse(value);
+    }
+}
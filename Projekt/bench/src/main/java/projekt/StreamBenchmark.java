@@ -0,0 +1,41 @@
+package projekt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    @Benchmark
+    public List<Integer> iterateTakeToList() {
+        return Stream.iterate(0, x -> x + 1).take(size).toList();
+    }
+
+    @Benchmark
+    public Integer dropWhile() {
+        return Stream.from(0).dropWhile(x -> x < size).head();
+    }
+
+    @Benchmark
+    public boolean exists() {
+        return Stream.from(0).exists(x -> x == size);
+    }
+}
@@ -0,0 +1,38 @@
+package projekt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst den Durchsatz des Trampolins: eine Zaehlschleife mit bounces Spruengen pro Operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TailCallBenchmark {
+
+    @Param({"1000", "1000000"})
+    public int bounces;
+
+    @Benchmark
+    public Integer countDown() {
+        return countDown(bounces, 0).eval();
+    }
+
+    private static TailCall<Integer> countDown(int n, int acc) {
+        return n == 0 ? TailCall.ret(acc) : TailCall.sus(() -> countDown(n - 1, acc + 1));
+    }
+}
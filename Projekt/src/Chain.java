@@ -0,0 +1,119 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hintereinanderausfuehrung beliebig vieler Funktionen als flaches Array von Stufen.
+ * <p>
+ * apply laeuft in einer Schleife ueber die Stufen, statt wie bei verschachtelten Lambdas durch die
+ * ganze Kette abzusteigen; der Aufrufstack bleibt auch bei tausenden Stufen flach. Wird eine Chain
+ * an eine andere gehaengt, werden deren Stufen uebernommen und nicht als eine Stufe verschachtelt.
+ * <p>
+ * andThen haengt in amortisiert O(1) an: Ketten teilen sich ein Array mit Reserve, und nur die Kette,
+ * die das Array bis zu ihrem Ende belegt, darf es weiter fuellen (ueber einen gemeinsamen Zaehler).
+ * Alle anderen, und compose, kopieren. Eine Chain ist unveraenderlich.
+ * <p>
+ * Benachbarte int-Stufen aus IntChain.boxed() werden zu einer IntChain verschmolzen, die ohne
+ * Boxing zwischen den Stufen laeuft. Die int-Stufen am Ende der Kette stehen dafuer nicht im Array,
+ * sondern in ints; weitere int-Stufen werden dort angehaengt (ebenfalls amortisiert O(1)), erst
+ * eine andere Stufe schiebt sie als eine Stufe ins Array.
+ */
+public final class Chain<T, U> implements Function<T, U> {
+
+    private static final Object[] NONE = new Object[0];
+
+    private final Object[] stages;
+    private final AtomicInteger used;
+    private final int length;
+    private final IntChain ints;
+
+    private Chain(Object[] stages, AtomicInteger used, int length, IntChain ints) {
+        this.stages = stages;
+        this.used = used;
+        this.length = length;
+        this.ints = ints;
+    }
+
+    // -----------------------------------------------------------Instanzmethoden
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public U apply(T arg) {
+        Object x = arg;
+        Object[] a = stages;
+        for (int i = 0; i < length; i++) {
+            x = ((Function<Object, Object>) a[i]).apply(x);
+        }
+        return ints == null ? (U) x : (U) (Integer) ints.applyAsInt((Integer) x);
+    }
+
+    @Override
+    public <V> Chain<T, V> andThen(Function<U, V> after) {
+        Object[] more = after instanceof Chain ? ((Chain<?, ?>) after).toArray() : new Object[]{after};
+        return append(more);
+    }
+
+    @Override
+    public <V> Chain<V, U> compose(Function<V, T> before) {
+        return Chain.<V, T>of(before).append(toArray());
+    }
+
+    /**
+     * Anzahl der Stufen.
+     */
+    public int length() {
+        return ints == null ? length : length + 1;
+    }
+
+    private Object[] toArray() {
+        Object[] a = Arrays.copyOf(stages, length());
+        if (ints != null) a[length] = ints.boxed();
+        return a;
+    }
+
+    /**
+     * Haengt more an. int-Stufen werden mit ints verschmolzen; steht davor noch eine andere Stufe an,
+     * kommt ints als eine Stufe ins Array.
+     */
+    private <V, W> Chain<V, W> append(Object[] more) {
+        Object[] push = new Object[more.length + 1];
+        int p = 0;
+        IntChain pending = ints;
+        for (Object m : more) {
+            if (m instanceof IntChain.Boxed) {
+                IntChain next = ((IntChain.Boxed) m).chain;
+                pending = pending == null ? next : pending.andThen(next);
+            } else {
+                if (pending != null) {
+                    push[p++] = pending.boxed();
+                    pending = null;
+                }
+                push[p++] = m;
+            }
+        }
+        if (p == 0) {
+            return new Chain<>(stages, used, length, pending);
+        }
+        int n = length + p;
+        if (n <= stages.length && used.compareAndSet(length, n)) {
+            System.arraycopy(push, 0, stages, length, p);
+            return new Chain<>(stages, used, n, pending);
+        }
+        Object[] grown = Arrays.copyOf(stages, Math.max(n, 2 * length + 4));
+        System.arraycopy(push, 0, grown, length, p);
+        return new Chain<>(grown, new AtomicInteger(n), n, pending);
+    }
+
+    // ----------------------------------------------------------------------Klassenmethoden
+
+    /**
+     * Die identische Funktion als leere Kette.
+     */
+    public static <T> Chain<T, T> identity() {
+        return new Chain<>(NONE, new AtomicInteger(), 0, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T, U> Chain<T, U> of(Function<T, U> f) {
+        return f instanceof Chain ? (Chain<T, U>) f : Chain.<T>identity().append(new Object[]{f});
+    }
+}
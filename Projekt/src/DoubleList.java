@@ -0,0 +1,253 @@
+import java.util.Arrays;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Persistente Liste von double-Werten ohne Boxing.
+ * <p>
+ * Die Elemente liegen in double[]-Abschnitten, die wie die Zellen von {@link List} verkettet sind.
+ * Ein Abschnitt wird nach dem Aufbau nicht mehr veraendert und kann deshalb von beliebig vielen
+ * Listen geteilt werden. Faltungen, sum, min und max laufen als Schleifen ueber die Arrays und
+ * erzeugen keine Objekte; map und filter erzeugen genau ein neues Array.
+ */
+public final class DoubleList {
+
+    /**
+     * Bis zu dieser Groesse wird der vorderste Abschnitt bei cons kopiert statt eine neue Zelle anzulegen.
+     */
+    private static final int SMALL_CHUNK = 32;
+
+    private static final DoubleList EMPTY = new DoubleList(new double[0], 0, null, 0);
+
+    private final double[] values;
+    private final int from;
+    private final DoubleList next;
+    private final int length;
+
+    private DoubleList(double[] values, int from, DoubleList next, int length) {
+        this.values = values;
+        this.from = from;
+        this.next = next;
+        this.length = length;
+    }
+
+    // -----------------------------------------------------------Instanzmethoden
+
+    public int length() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    public double head() {
+        if (isEmpty()) throw new IllegalStateException("head called on empty list");
+        return values[from];
+    }
+
+    public DoubleList tail() {
+        if (isEmpty()) throw new IllegalStateException("tail called on empty list");
+        return from + 1 < values.length ? new DoubleList(values, from + 1, next, length - 1) : next;
+    }
+
+    public DoubleList cons(double x) {
+        int n = values.length - from;
+        if (n == 0) {
+            return new DoubleList(new double[]{x}, 0, EMPTY, 1);
+        }
+        if (n < SMALL_CHUNK) {
+            double[] chunk = new double[n + 1];
+            chunk[0] = x;
+            System.arraycopy(values, from, chunk, 1, n);
+            return new DoubleList(chunk, 0, next, length + 1);
+        }
+        return new DoubleList(new double[]{x}, 0, this, length + 1);
+    }
+
+    public DoubleList drop(int n) {
+        DoubleList l = this;
+        int k = n;
+        while (k > 0 && !l.isEmpty()) {
+            int inChunk = l.values.length - l.from;
+            if (k < inChunk) {
+                return new DoubleList(l.values, l.from + k, l.next, l.length - k);
+            }
+            k -= inChunk;
+            l = l.next;
+        }
+        return l;
+    }
+
+    public DoubleList take(int n) {
+        return n >= length ? this : n <= 0 ? EMPTY : of(prefix(n));
+    }
+
+    public double foldl(double identity, DoubleBinaryOperator f) {
+        double acc = identity;
+        for (DoubleList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                acc = f.applyAsDouble(acc, l.values[i]);
+            }
+        }
+        return acc;
+    }
+
+    public double sum() {
+        double acc = 0;
+        for (DoubleList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                acc += l.values[i];
+            }
+        }
+        return acc;
+    }
+
+    public double prod() {
+        double acc = 1;
+        for (DoubleList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                acc *= l.values[i];
+            }
+        }
+        return acc;
+    }
+
+    public double minimum() {
+        if (isEmpty()) throw new IllegalStateException("minimum called on empty list");
+        double acc = head();
+        for (DoubleList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                acc = Math.min(acc, l.values[i]);
+            }
+        }
+        return acc;
+    }
+
+    public double maximum() {
+        if (isEmpty()) throw new IllegalStateException("maximum called on empty list");
+        double acc = head();
+        for (DoubleList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                acc = Math.max(acc, l.values[i]);
+            }
+        }
+        return acc;
+    }
+
+    public boolean elem(double x) {
+        for (DoubleList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                if (l.values[i] == x) return true;
+            }
+        }
+        return false;
+    }
+
+    public DoubleList map(DoubleUnaryOperator f) {
+        double[] out = new double[length];
+        int k = 0;
+        for (DoubleList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                out[k++] = f.applyAsDouble(l.values[i]);
+            }
+        }
+        return of(out);
+    }
+
+    public DoubleList filter(DoublePredicate p) {
+        double[] out = new double[length];
+        int k = 0;
+        for (DoubleList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                if (p.test(l.values[i])) out[k++] = l.values[i];
+            }
+        }
+        return k == length ? this : of(Arrays.copyOf(out, k));
+    }
+
+    public double[] toArray() {
+        return prefix(length);
+    }
+
+    /**
+     * Die ersten n Elemente (n &lt;= length) als neues Array; nur die dafuer noetigen Abschnitte werden gelesen.
+     */
+    private double[] prefix(int n) {
+        double[] out = new double[n];
+        int k = 0;
+        for (DoubleList l = this; k < n; l = l.next) {
+            int m = Math.min(n - k, l.values.length - l.from);
+            System.arraycopy(l.values, l.from, out, k, m);
+            k += m;
+        }
+        return out;
+    }
+
+    /**
+     * Wandelt in eine generische List um. Die Zellen werden von hinten nach vorne in einer Schleife aufgebaut.
+     */
+    public List<Double> toList() {
+        double[] a = toArray();
+        List<Double> list = List.list();
+        for (int i = a.length - 1; i >= 0; i--) {
+            list = list.cons(a[i]);
+        }
+        return list;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof DoubleList && Arrays.equals(toArray(), ((DoubleList) o).toArray());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (DoubleList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                sb.append(l.values[i]).append(", ");
+            }
+        }
+        return sb.append("NIL]").toString();
+    }
+
+    // ----------------------------------------------------------------------Klassenmethoden
+
+    public static DoubleList empty() {
+        return EMPTY;
+    }
+
+    public static DoubleList doubleList(double... a) {
+        return of(a.clone());
+    }
+
+    public static DoubleList fromList(List<Double> list) {
+        double[] a = new double[list.length()];
+        int i = 0;
+        for (List<Double> l = list; !l.isEmpty(); l = l.tail()) {
+            a[i++] = l.head();
+        }
+        return of(a);
+    }
+
+    public static DoubleList range(double start, double end, double step) {
+        if (step <= 0) throw new IllegalArgumentException("step must be positive");
+        if (start > end) return EMPTY;
+        double[] a = new double[Math.toIntExact((long) Math.floor((end - start) / step) + 1)];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = start + i * step;
+        }
+        return of(a);
+    }
+
+    private static DoubleList of(double[] a) {
+        return a.length == 0 ? EMPTY : new DoubleList(a, 0, EMPTY, a.length);
+    }
+}
@@ -0,0 +1,212 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Ein Stream ueber den Inhalt einer Datei, der erst beim Durchlaufen gelesen wird.
+ * <p>
+ * Die Datei wird ueber einen FileChannel in einen festen Puffer von BUFFER_SIZE Bytes gelesen; es ist
+ * also nie mehr als ein Puffer und das gerade entstehende Element im Speicher, egal wie gross die
+ * Datei ist. Die FileSource haelt selbst keine Zelle des Streams. Die erste Zelle gibt ihren Rest nur
+ * einmal heraus und vergisst ihn dann (Stream.consOnce); wer sie festhaelt, etwa als Parameter des
+ * Lambdas in use(), haelt damit also nicht die schon gelesenen Zellen fest. Der Stream kann deshalb nur
+ * einmal vom Anfang an durchlaufen werden.
+ * <p>
+ * Der Kanal wird geschlossen, sobald der Stream vollstaendig gelesen ist. Wird der Stream vorher
+ * verlassen, schliesst close() ihn; am einfachsten ueber use() oder try-with-resources:
+ * <pre>{@code
+ * boolean failed = FileSource.lines(path).use(s -> s.exists(l -> l.contains("ERROR")));
+ * }</pre>
+ * Zeilen und Woerter werden als UTF-8 gelesen. Getrennt wird an den ASCII-Bytes fuer Zeilenende bzw.
+ * Leerraum, die in UTF-8 nie Teil eines Mehrbytezeichens sind.
+ */
+public final class FileSource<A> implements AutoCloseable {
+
+    static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Liest aus dem Puffer das naechste Element oder liefert null am Dateiende.
+     */
+    private interface Reader<A> {
+        A read(FileSource<?> source) throws IOException;
+    }
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).flip();
+    private final Reader<A> reader;
+    private boolean closed;
+    private boolean started;
+
+    private FileSource(Path path, Reader<A> reader) {
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.reader = reader;
+    }
+
+    // -----------------------------------------------------------Instanzmethoden
+
+    /**
+     * Der Stream ueber die Datei. Er kann nur einmal geholt werden; die FileSource selbst haelt
+     * nur den Lesezustand und keine Zelle des Streams, damit gelesene Elemente freigegeben werden.
+     */
+    public synchronized Stream<A> stream() {
+        if (started) {
+            throw new IllegalStateException("stream() already called");
+        }
+        started = true;
+        return read(true);
+    }
+
+    /**
+     * Wendet f auf den Stream an und schliesst die Datei danach in jedem Fall.
+     * f darf den Stream nur innerhalb des Aufrufs auswerten. Der Stream wird nur als Argument
+     * weitergereicht, use() selbst haelt keine Referenz darauf.
+     */
+    public <R> R use(Function<Stream<A>, R> f) {
+        try {
+            return f.apply(stream());
+        } finally {
+            close();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private Stream<A> next() {
+        return read(false);
+    }
+
+    private synchronized Stream<A> read(boolean first) {
+        if (closed) {
+            throw new IllegalStateException("FileSource is closed");
+        }
+        A a;
+        try {
+            a = reader.read(this);
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        }
+        if (a == null) {
+            close();
+            return Stream.empty();
+        }
+        return first ? Stream.consOnce(a, this::next) : Stream.cons(() -> a, this::next);
+    }
+
+    /**
+     * Das naechste Byte der Datei (0 bis 255) oder -1 am Dateiende.
+     */
+    private int nextByte() throws IOException {
+        if (!buffer.hasRemaining()) {
+            buffer.clear();
+            int n;
+            do {
+                n = channel.read(buffer);
+            } while (n == 0);
+            buffer.flip();
+            if (n < 0) return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    // ----------------------------------------------------------------------Klassenmethoden
+
+    /**
+     * Die Zeilen der Datei ohne Zeilenende ("\n" oder "\r\n").
+     */
+    public static FileSource<String> lines(Path path) {
+        return new FileSource<>(path, source -> {
+            Bytes line = new Bytes();
+            int b = source.nextByte();
+            if (b < 0) return null;
+            while (b >= 0 && b != '\n') {
+                line.add(b);
+                b = source.nextByte();
+            }
+            if (line.length > 0 && line.bytes[line.length - 1] == '\r') {
+                line.length--;
+            }
+            return line.toUtf8();
+        });
+    }
+
+    /**
+     * Die durch Leerraum getrennten Woerter der Datei, wie List.words und mit derselben Definition
+     * von Leerraum (List.isSpace).
+     */
+    public static FileSource<String> words(Path path) {
+        return new FileSource<>(path, source -> {
+            int b = source.nextByte();
+            while (b >= 0 && List.isSpace(b)) {
+                b = source.nextByte();
+            }
+            if (b < 0) return null;
+            Bytes word = new Bytes();
+            while (b >= 0 && !List.isSpace(b)) {
+                word.add(b);
+                b = source.nextByte();
+            }
+            return word.toUtf8();
+        });
+    }
+
+    /**
+     * Die Datei in Bloecken zu je size Bytes. Der letzte Block ist kuerzer, wenn die Dateigroesse
+     * kein Vielfaches von size ist.
+     */
+    public static FileSource<byte[]> records(Path path, int size) {
+        if (size < 1) throw new IllegalArgumentException("size must be positive");
+        return new FileSource<>(path, source -> {
+            byte[] record = new byte[size];
+            int n = 0;
+            while (n < size) {
+                if (!source.buffer.hasRemaining() && source.nextByte() >= 0) {
+                    source.buffer.position(source.buffer.position() - 1);
+                }
+                int k = Math.min(size - n, source.buffer.remaining());
+                if (k == 0) break;
+                source.buffer.get(record, n, k);
+                n += k;
+            }
+            return n == 0 ? null : n == size ? record : Arrays.copyOf(record, n);
+        });
+    }
+
+    /**
+     * Wachsender Bytepuffer fuer das gerade gelesene Element.
+     */
+    private static final class Bytes {
+        private byte[] bytes = new byte[64];
+        private int length;
+
+        private void add(int b) {
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, length * 2);
+            }
+            bytes[length++] = (byte) b;
+        }
+
+        private String toUtf8() {
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+}
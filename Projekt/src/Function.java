@@ -1,31 +1,86 @@
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongUnaryOperator;
+
 
 
 public interface Function<T, U> {
 
     U apply(T arg);
 
+    /**
+     * Erst diese Funktion, dann after. Das Ergebnis ist eine flache Chain, lange Ketten
+     * laufen also in einer Schleife statt in verschachtelten Aufrufen.
+     */
+    default <V> Function<T, V> andThen(Function<U, V> after) {
+        return Chain.of(this).andThen(after);
+    }
+
+    /**
+     * Erst before, dann diese Funktion, ebenfalls als flache Chain.
+     */
+    default <V> Function<V, U> compose(Function<V, T> before) {
+        return Chain.of(before).andThen(this);
+    }
+
     // Exercise 2.1
     static Function<Integer, Integer> compose(Function<Integer, Integer> f1, Function<Integer, Integer> f2) {
-        return new Function<Integer, Integer>() {
-            @Override
-            public Integer apply(Integer arg) {
-                return f1.apply(f2.apply(arg));
-            }
-        };
+        return f2.andThen(f1);
     }
 
     // Exercise 2.2
     static Function<Integer, Integer> composeLambda(Function<Integer, Integer> f1, Function<Integer, Integer> f2) {
-        return arg -> f1.apply(f2.apply(arg));
+        return f2.andThen(f1);
     }
 
     // Exercise 2.2a
     public static <T, V, U> Function<V, U> composeGeneric(Function<V, T> f1, Function<T, U> f2) {
-        return arg -> f2.apply(f1.apply(arg));
+        return f1.andThen(f2);
+    }
+
+    /**
+     * compose ohne Boxing: f1 nach f2 als flache IntChain.
+     */
+    static IntChain composeInt(IntUnaryOperator f1, IntUnaryOperator f2) {
+        return IntChain.of(f2).andThen(f1);
+    }
+
+    static LongUnaryOperator composeLong(LongUnaryOperator f1, LongUnaryOperator f2) {
+        return arg -> f1.applyAsLong(f2.applyAsLong(arg));
+    }
+
+    static DoubleUnaryOperator composeDouble(DoubleUnaryOperator f1, DoubleUnaryOperator f2) {
+        return arg -> f1.applyAsDouble(f2.applyAsDouble(arg));
+    }
+
+    static IntPredicate notInt(IntPredicate p) {
+        return x -> !p.test(x);
     }
 
     // Aufgabe not
     public static Function<Boolean, Boolean> not() {
         return x -> !x;
     }
+
+    /**
+     * Speichert alle Ergebnisse von f; fuer reine Funktionen, die oft mit denselben Argumenten laufen.
+     */
+    static <T, U> Memoizer<T, U> memoize(Function<T, U> f) {
+        return Memoizer.unbounded(f);
+    }
+
+    /**
+     * Speichert hoechstens maxSize Ergebnisse und verdraengt die am laengsten nicht benutzten.
+     */
+    static <T, U> Memoizer<T, U> memoize(Function<T, U> f, int maxSize) {
+        return Memoizer.lru(f, maxSize);
+    }
+
+    /**
+     * Speichert Ergebnisse fuer die Dauer ttl.
+     */
+    static <T, U> Memoizer<T, U> memoize(Function<T, U> f, java.time.Duration ttl) {
+        return Memoizer.expiring(f, ttl);
+    }
 }
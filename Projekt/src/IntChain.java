@@ -0,0 +1,102 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Wie Chain, aber fuer Stufen von int nach int: applyAsInt laeuft in einer Schleife ueber
+ * IntUnaryOperator-Stufen, ohne einen Wert zu boxen. Verschachtelte IntChains werden beim
+ * Anhaengen flach uebernommen.
+ * <p>
+ * andThen haengt wie bei Chain in amortisiert O(1) an: IntChains teilen sich ein Array mit Reserve,
+ * das nur die IntChain weiter fuellen darf, die es bis zu ihrem Ende belegt. compose kopiert.
+ * <p>
+ * boxed() macht daraus eine Function&lt;Integer, Integer&gt;, die nur beim Ein- und Austritt boxt.
+ * Stehen in einer Chain mehrere solcher Stufen direkt hintereinander, verschmilzt Chain sie zu einer
+ * einzigen IntChain.
+ */
+public final class IntChain implements IntUnaryOperator {
+
+    private static final IntUnaryOperator[] NONE = new IntUnaryOperator[0];
+
+    private final IntUnaryOperator[] stages;
+    private final AtomicInteger used;
+    private final int length;
+
+    private IntChain(IntUnaryOperator[] stages, AtomicInteger used, int length) {
+        this.stages = stages;
+        this.used = used;
+        this.length = length;
+    }
+
+    // -----------------------------------------------------------Instanzmethoden
+
+    @Override
+    public int applyAsInt(int x) {
+        int r = x;
+        IntUnaryOperator[] a = stages;
+        for (int i = 0; i < length; i++) {
+            r = a[i].applyAsInt(r);
+        }
+        return r;
+    }
+
+    @Override
+    public IntChain andThen(IntUnaryOperator after) {
+        return after instanceof IntChain
+                ? append(((IntChain) after).stages, ((IntChain) after).length)
+                : append(new IntUnaryOperator[]{after}, 1);
+    }
+
+    @Override
+    public IntChain compose(IntUnaryOperator before) {
+        return of(before).append(stages, length);
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public Function<Integer, Integer> boxed() {
+        return new Boxed(this);
+    }
+
+    private IntChain append(IntUnaryOperator[] more, int count) {
+        if (count == 0) {
+            return this;
+        }
+        int n = length + count;
+        if (n <= stages.length && used.compareAndSet(length, n)) {
+            System.arraycopy(more, 0, stages, length, count);
+            return new IntChain(stages, used, n);
+        }
+        IntUnaryOperator[] grown = Arrays.copyOf(stages, Math.max(n, 2 * length + 4));
+        System.arraycopy(more, 0, grown, length, count);
+        return new IntChain(grown, new AtomicInteger(n), n);
+    }
+
+    // ----------------------------------------------------------------------Klassenmethoden
+
+    public static IntChain identity() {
+        return new IntChain(NONE, new AtomicInteger(), 0);
+    }
+
+    public static IntChain of(IntUnaryOperator f) {
+        return f instanceof IntChain ? (IntChain) f : identity().andThen(f);
+    }
+
+    /**
+     * Die geboxte Sicht; Chain erkennt sie an dieser Klasse und verschmilzt benachbarte.
+     */
+    static final class Boxed implements Function<Integer, Integer> {
+        final IntChain chain;
+
+        private Boxed(IntChain chain) {
+            this.chain = chain;
+        }
+
+        @Override
+        public Integer apply(Integer x) {
+            return chain.applyAsInt(x);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Persistente Liste von int-Werten ohne Boxing.
+ * <p>
+ * Die Elemente liegen in int[]-Abschnitten, die wie die Zellen von {@link List} verkettet sind.
+ * Ein Abschnitt wird nach dem Aufbau nicht mehr veraendert und kann deshalb von beliebig vielen
+ * Listen geteilt werden. Faltungen, sum, min und max laufen als Schleifen ueber die Arrays und
+ * erzeugen keine Objekte; map und filter erzeugen genau ein neues Array.
+ */
+public final class IntList {
+
+    /**
+     * Bis zu dieser Groesse wird der vorderste Abschnitt bei cons kopiert statt eine neue Zelle anzulegen.
+     */
+    private static final int SMALL_CHUNK = 32;
+
+    private static final IntList EMPTY = new IntList(new int[0], 0, null, 0);
+
+    private final int[] values;
+    private final int from;
+    private final IntList next;
+    private final int length;
+
+    private IntList(int[] values, int from, IntList next, int length) {
+        this.values = values;
+        this.from = from;
+        this.next = next;
+        this.length = length;
+    }
+
+    // -----------------------------------------------------------Instanzmethoden
+
+    public int length() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    public int head() {
+        if (isEmpty()) throw new IllegalStateException("head called on empty list");
+        return values[from];
+    }
+
+    public IntList tail() {
+        if (isEmpty()) throw new IllegalStateException("tail called on empty list");
+        return from + 1 < values.length ? new IntList(values, from + 1, next, length - 1) : next;
+    }
+
+    public IntList cons(int x) {
+        int n = values.length - from;
+        if (n == 0) {
+            return new IntList(new int[]{x}, 0, EMPTY, 1);
+        }
+        if (n < SMALL_CHUNK) {
+            int[] chunk = new int[n + 1];
+            chunk[0] = x;
+            System.arraycopy(values, from, chunk, 1, n);
+            return new IntList(chunk, 0, next, length + 1);
+        }
+        return new IntList(new int[]{x}, 0, this, length + 1);
+    }
+
+    public IntList drop(int n) {
+        IntList l = this;
+        int k = n;
+        while (k > 0 && !l.isEmpty()) {
+            int inChunk = l.values.length - l.from;
+            if (k < inChunk) {
+                return new IntList(l.values, l.from + k, l.next, l.length - k);
+            }
+            k -= inChunk;
+            l = l.next;
+        }
+        return l;
+    }
+
+    public IntList take(int n) {
+        return n >= length ? this : n <= 0 ? EMPTY : of(prefix(n));
+    }
+
+    public int foldl(int identity, IntBinaryOperator f) {
+        int acc = identity;
+        for (IntList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                acc = f.applyAsInt(acc, l.values[i]);
+            }
+        }
+        return acc;
+    }
+
+    public int sum() {
+        int acc = 0;
+        for (IntList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                acc += l.values[i];
+            }
+        }
+        return acc;
+    }
+
+    public int prod() {
+        int acc = 1;
+        for (IntList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                acc *= l.values[i];
+            }
+        }
+        return acc;
+    }
+
+    public int minimum() {
+        if (isEmpty()) throw new IllegalStateException("minimum called on empty list");
+        int acc = head();
+        for (IntList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                acc = Math.min(acc, l.values[i]);
+            }
+        }
+        return acc;
+    }
+
+    public int maximum() {
+        if (isEmpty()) throw new IllegalStateException("maximum called on empty list");
+        int acc = head();
+        for (IntList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                acc = Math.max(acc, l.values[i]);
+            }
+        }
+        return acc;
+    }
+
+    public boolean elem(int x) {
+        for (IntList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                if (l.values[i] == x) return true;
+            }
+        }
+        return false;
+    }
+
+    public IntList map(IntUnaryOperator f) {
+        int[] out = new int[length];
+        int k = 0;
+        for (IntList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                out[k++] = f.applyAsInt(l.values[i]);
+            }
+        }
+        return of(out);
+    }
+
+    public IntList filter(IntPredicate p) {
+        int[] out = new int[length];
+        int k = 0;
+        for (IntList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                if (p.test(l.values[i])) out[k++] = l.values[i];
+            }
+        }
+        return k == length ? this : of(Arrays.copyOf(out, k));
+    }
+
+    public int[] toArray() {
+        return prefix(length);
+    }
+
+    /**
+     * Die ersten n Elemente (n &lt;= length) als neues Array; nur die dafuer noetigen Abschnitte werden gelesen.
+     */
+    private int[] prefix(int n) {
+        int[] out = new int[n];
+        int k = 0;
+        for (IntList l = this; k < n; l = l.next) {
+            int m = Math.min(n - k, l.values.length - l.from);
+            System.arraycopy(l.values, l.from, out, k, m);
+            k += m;
+        }
+        return out;
+    }
+
+    /**
+     * Wandelt in eine generische List um. Die Zellen werden von hinten nach vorne in einer Schleife aufgebaut.
+     */
+    public List<Integer> toList() {
+        int[] a = toArray();
+        List<Integer> list = List.list();
+        for (int i = a.length - 1; i >= 0; i--) {
+            list = list.cons(a[i]);
+        }
+        return list;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof IntList && Arrays.equals(toArray(), ((IntList) o).toArray());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (IntList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                sb.append(l.values[i]).append(", ");
+            }
+        }
+        return sb.append("NIL]").toString();
+    }
+
+    // ----------------------------------------------------------------------Klassenmethoden
+
+    public static IntList empty() {
+        return EMPTY;
+    }
+
+    public static IntList intList(int... a) {
+        return of(a.clone());
+    }
+
+    public static IntList fromList(List<Integer> list) {
+        int[] a = new int[list.length()];
+        int i = 0;
+        for (List<Integer> l = list; !l.isEmpty(); l = l.tail()) {
+            a[i++] = l.head();
+        }
+        return of(a);
+    }
+
+    public static IntList range(int start, int end) {
+        if (start > end) return EMPTY;
+        int[] a = new int[Math.toIntExact((long) end - start + 1)];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = start + i;
+        }
+        return of(a);
+    }
+
+    private static IntList of(int[] a) {
+        return a.length == 0 ? EMPTY : new IntList(a, 0, EMPTY, a.length);
+    }
+}
@@ -1,15 +1,30 @@
 
 
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntPredicate;
+import java.util.function.LongBinaryOperator;
 import java.util.function.Predicate;
+import java.util.stream.Collector;
+import java.util.stream.StreamSupport;
 
 //import Function;
 //import legacy.TailCall;
 
-/*import set.Set;
-import static set.ListSet.*;*/
-
-public abstract class List<A> {
+public abstract class List<A> implements Iterable<A> {
 
     public abstract A head();
 
@@ -62,10 +77,31 @@ public abstract class List<A> {
 
     public abstract boolean equals(Object o);
 
+    /**
+     * Passend zu equals aus den Elementen berechnet, wie bei java.util.List; eine Range und eine Liste
+     * aus Cons-Zellen mit denselben Elementen haben also denselben Hashwert.
+     */
+    @Override
+    public int hashCode() {
+        return foldl(h -> a -> 31 * h + Objects.hashCode(a), 1);
+    }
+
     public abstract Result<A> find(Function<A, Boolean> p);
 
     public abstract Result<A> headOption();
 
+    /**
+     * Faltet die Liste von links. Unterklassen, die ihre Elemente ohne Zellen kennen, ueberschreiben
+     * diese Methode und laufen dann ohne Zellen zu erzeugen ueber ihre Elemente.
+     */
+    public <B> B foldl(Function<B, Function<A, B>> f, B s) {
+        B acc = s;
+        for (List<A> l = this; !l.isEmpty(); l = l.tail()) {
+            acc = f.apply(acc).apply(l.head());
+        }
+        return acc;
+    }
+
     // ----------------------------------------------------------------------Nil
     private static class Nil<A> extends List<A> {
         private Nil() {
@@ -187,6 +223,7 @@ public abstract class List<A> {
             return Result.empty();
         }
 
+        @SuppressWarnings("overloads")
         public void forEach(Effect<A> ef) {
         // Do nothing
         }
@@ -196,10 +233,12 @@ public abstract class List<A> {
     private static class Cons<A> extends List<A> {
         private final A head;
         private final List<A> tail;
+        private final int length;
 
         private Cons(A head, List<A> tail) {
             this.head = head;
             this.tail = tail;
+            this.length = tail.length() + 1;
         }
 
         public A head() {
@@ -234,88 +273,145 @@ public abstract class List<A> {
 
         @Override
         public boolean equals(Object o) {
-            if (!(o instanceof Cons)) return false;
+            if (!(o instanceof List) || ((List<?>) o).isEmpty()) return false;
 
-            List<A> list = (Cons<A>) o;
+            List<?> list = (List<?>) o;
 
-            return (head().equals(list.head()) && tail.equals(list.tail()));
+            return length == list.length() && List.equals(this, list).eval();
         }
 
         // -----------------------------------------------------------Instanzmethoden
+
+        /**
+         * Die Laenge wird beim Aufbau jeder Zelle mitgefuehrt und steht daher in O(1) zur Verfuegung.
+         */
         @Override
         public int length() {
-            return 1 + tail.length();
+            return length;
         }
 
         @Override
         public boolean elem(A x) {
-            return x == head ? true : tail.elem(x);
+            return elem(this, x).eval();
+        }
+
+        private static <A> TailCall<Boolean> elem(List<A> list, A x) {
+            return list.isEmpty() ? TailCall.ret(false)
+                    : x == list.head() ? TailCall.ret(true)
+                    : TailCall.sus(() -> elem(list.tail(), x));
         }
 
         @Override
         public boolean any(Function<A, Boolean> p) {
-            return p.apply(head) ? true : tail.any(p);
+            return any(this, p).eval();
+        }
+
+        private static <A> TailCall<Boolean> any(List<A> list, Function<A, Boolean> p) {
+            return list.isEmpty() ? TailCall.ret(false)
+                    : p.apply(list.head()) ? TailCall.ret(true)
+                    : TailCall.sus(() -> any(list.tail(), p));
         }
 
         @Override
         public boolean all(Function<A, Boolean> p) {
-            return p.apply(head) && tail.all(p);
+            return all(this, p).eval();
+        }
+
+        private static <A> TailCall<Boolean> all(List<A> list, Function<A, Boolean> p) {
+            return list.isEmpty() ? TailCall.ret(true)
+                    : !p.apply(list.head()) ? TailCall.ret(false)
+                    : TailCall.sus(() -> all(list.tail(), p));
         }
 
         @Override
         public <B> List<B> map(Function<A, B> f) {
-            return append(list(f.apply(head)), tail.map(f));
+            return reverse(map(list(), this, f).eval());
+        }
+
+        private static <A, B> TailCall<List<B>> map(List<B> acc, List<A> list, Function<A, B> f) {
+            return list.isEmpty() ? TailCall.ret(acc)
+                    : TailCall.sus(() -> map(new Cons<>(f.apply(list.head()), acc), list.tail(), f));
         }
 
         @Override
         public List<A> filter(Function<A, Boolean> f) {
-            return f.apply(head) ? append(list(head), tail.filter(f)) : tail.filter(f);
+            return reverse(filter(list(), this, f).eval());
+        }
+
+        private static <A> TailCall<List<A>> filter(List<A> acc, List<A> list, Function<A, Boolean> f) {
+            return list.isEmpty() ? TailCall.ret(acc)
+                    : TailCall.sus(() -> filter(f.apply(list.head()) ? new Cons<>(list.head(), acc) : acc, list.tail(), f));
         }
 
         @Override
         public A finde(Function<A, Boolean> f) {
-            return f.apply(head) ? head : tail.finde(f);
+            return find(this, f).eval().getOrElse((A) null);
         }
 
         @Override
         public List<A> init() {
-            return tail.length() == 1 ? list(head) : append(list(head), tail.init());
+            return reverse(reverse(this).tail());
         }
 
         @Override
         public A last() {
-            return tail.isEmpty() ? head : tail.last();
+            return drop(length - 1).head();
         }
 
         @Override
         public List<A> take(int n) {
-            return n == 1 ? list(head) : append(list(head), tail.take(n - 1));
+            return n >= length ? this : reverse(take(list(), this, n).eval());
+        }
+
+        private static <A> TailCall<List<A>> take(List<A> acc, List<A> list, int n) {
+            return n <= 0 || list.isEmpty() ? TailCall.ret(acc)
+                    : TailCall.sus(() -> take(new Cons<>(list.head(), acc), list.tail(), n - 1));
         }
 
         @Override
         public List<A> drop(int n) {
-            return n == 1 ? tail : tail.drop(n - 1);
+            return drop(this, n).eval();
+        }
+
+        private static <A> TailCall<List<A>> drop(List<A> list, int n) {
+            return n <= 0 || list.isEmpty() ? TailCall.ret(list)
+                    : TailCall.sus(() -> drop(list.tail(), n - 1));
         }
 
         @Override
         public List<A> takeWhile(Function<A, Boolean> p) {
-            return p.apply(head) ? append(list(head), tail.takeWhile(p)) : list();
+            return reverse(takeWhile(list(), this, p).eval());
+        }
+
+        private static <A> TailCall<List<A>> takeWhile(List<A> acc, List<A> list, Function<A, Boolean> p) {
+            return list.isEmpty() || !p.apply(list.head()) ? TailCall.ret(acc)
+                    : TailCall.sus(() -> takeWhile(new Cons<>(list.head(), acc), list.tail(), p));
         }
 
         @Override
         public List<A> dropWhile(Function<A, Boolean> p) {
-            return p.apply(head) ? tail.dropWhile(p) : this;
+            return dropWhile(this, p).eval();
+        }
+
+        private static <A> TailCall<List<A>> dropWhile(List<A> list, Function<A, Boolean> p) {
+            return list.isEmpty() || !p.apply(list.head()) ? TailCall.ret(list)
+                    : TailCall.sus(() -> dropWhile(list.tail(), p));
         }
 
         @Override
         public List<A> delete(A x) {
-            return head == x ? tail : append(list(head), tail.delete(x));
+            return delete(list(), this, x).eval();
+        }
+
+        private static <A> TailCall<List<A>> delete(List<A> acc, List<A> list, A x) {
+            return list.isEmpty() ? TailCall.ret(reverse(acc))
+                    : list.head() == x ? reverseOnto(acc, list.tail())
+                    : TailCall.sus(() -> delete(new Cons<>(list.head(), acc), list.tail(), x));
         }
 
         @Override
         public boolean isEqualTo(List<A> xs) {
-            return tail.length() + 1 != xs.length() ? false
-                    : head != xs.head() ? false : true && tail.isEqualTo(xs.tail());
+            return length == xs.length() && List.isEqualTo(this, xs).eval();
         }
 
         @Override
@@ -325,9 +421,16 @@ public abstract class List<A> {
 
         @Override
         public Result<A> find(Function<A, Boolean> p) {
-            return p.apply(this.head) ? this.headOption() : this.tail.find(p);
+            return find(this, p).eval();
+        }
+
+        private static <A> TailCall<Result<A>> find(List<A> list, Function<A, Boolean> p) {
+            return list.isEmpty() ? TailCall.ret(Result.empty())
+                    : p.apply(list.head()) ? TailCall.ret(list.headOption())
+                    : TailCall.sus(() -> find(list.tail(), p));
         }
 
+        @SuppressWarnings("overloads")
         public void forEach(Effect<A> ef) {
             forEach(this, ef).eval();
         }
@@ -341,6 +444,422 @@ public abstract class List<A> {
             });
         }
     }
+    // ---------------------------------------------------------------------Range
+
+    /**
+     * Arithmetische Folge start, start + step, ... mit length Elementen.
+     * <p>
+     * Es werden nur Start, Schrittweite und Laenge gespeichert. head, tail, length, elem, last,
+     * take, drop und init sind O(1); Faltungen und filter laufen ueber int-Werte, ohne Zellen
+     * anzulegen. Cons-Zellen entstehen erst, wenn das Ergebnis eine echte Liste sein muss
+     * (map, filter, delete, setHead).
+     * <p>
+     * elem, delete und isEqualTo vergleichen wie bei Cons mit ==. Als Element gilt dabei das Objekt,
+     * das Autoboxing fuer den Wert liefert (Integer.valueOf), so als waeren die Zellen einmal mit
+     * diesen Werten gebaut worden; eine Range und eine gleiche Cons-Liste verhalten sich damit gleich.
+     * Zwei Ranges mit denselben Werten sind untereinander isEqualTo, wie eine Liste mit sich selbst.
+     */
+    private static class Range extends List<Integer> {
+        private final int start;
+        private final int step;
+        private final int length;
+
+        private Range(int start, int step, int length) {
+            this.start = start;
+            this.step = step;
+            this.length = length;
+        }
+
+        private int at(int i) {
+            return start + i * step;
+        }
+
+        /**
+         * Ob x das Element mit dem Wert v ist, im Sinne von == auf dem geboxten Wert.
+         */
+        private static boolean same(Integer x, int v) {
+            return x != null && x == Integer.valueOf(v);
+        }
+
+        public Integer head() {
+            return start;
+        }
+
+        public List<Integer> tail() {
+            return drop(1);
+        }
+
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public List<Integer> setHead(Integer h) {
+            return new Cons<>(h, tail());
+        }
+
+        public String toString() {
+            StringBuilder sb = new StringBuilder("[");
+            for (int i = 0; i < length; i++) {
+                sb.append(at(i)).append(", ");
+            }
+            return sb.append("NIL]").toString();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o instanceof Range) {
+                Range r = (Range) o;
+                return length == r.length && start == r.start && (length == 1 || step == r.step);
+            }
+            if (!(o instanceof List) || ((List<?>) o).isEmpty()) return false;
+
+            List<?> list = (List<?>) o;
+
+            return length == list.length() && List.equals(this, list).eval();
+        }
+
+        // -----------------------------------------------------------Instanzmethoden
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public boolean elem(Integer x) {
+            if (x == null) return false;
+            long d = (long) x - start;
+            return d % step == 0 && d / step >= 0 && d / step < length && same(x, x);
+        }
+
+        @Override
+        public boolean any(Function<Integer, Boolean> p) {
+            for (int i = 0; i < length; i++) {
+                if (p.apply(at(i))) return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean all(Function<Integer, Boolean> p) {
+            for (int i = 0; i < length; i++) {
+                if (!p.apply(at(i))) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public <B> List<B> map(Function<Integer, B> f) {
+            Object[] out = new Object[length];
+            for (int i = 0; i < length; i++) {
+                out[i] = f.apply(at(i));
+            }
+            return fromArray(out, length);
+        }
+
+        @Override
+        public List<Integer> filter(Function<Integer, Boolean> f) {
+            Object[] out = new Object[length];
+            int n = 0;
+            for (int i = 0; i < length; i++) {
+                if (f.apply(at(i))) out[n++] = at(i);
+            }
+            return n == length ? this : fromArray(out, n);
+        }
+
+        @Override
+        public Integer finde(Function<Integer, Boolean> f) {
+            return find(f).getOrElse((Integer) null);
+        }
+
+        @Override
+        public List<Integer> init() {
+            return take(length - 1);
+        }
+
+        @Override
+        public Integer last() {
+            return at(length - 1);
+        }
+
+        @Override
+        public List<Integer> take(int n) {
+            return n >= length ? this : n <= 0 ? list() : new Range(start, step, n);
+        }
+
+        @Override
+        public List<Integer> drop(int n) {
+            return n <= 0 ? this : n >= length ? list() : new Range(at(n), step, length - n);
+        }
+
+        @Override
+        public List<Integer> takeWhile(Function<Integer, Boolean> p) {
+            int i = 0;
+            while (i < length && p.apply(at(i))) i++;
+            return take(i);
+        }
+
+        @Override
+        public List<Integer> dropWhile(Function<Integer, Boolean> p) {
+            int i = 0;
+            while (i < length && p.apply(at(i))) i++;
+            return drop(i);
+        }
+
+        @Override
+        public List<Integer> delete(Integer x) {
+            if (!elem(x)) return this;
+            int i = (int) (((long) x - start) / step);
+            List<Integer> rest = drop(i + 1);
+            for (int j = i - 1; j >= 0; j--) {
+                rest = new Cons<>(at(j), rest);
+            }
+            return rest;
+        }
+
+        @Override
+        public boolean isEqualTo(List<Integer> xs) {
+            if (xs instanceof Range) {
+                return equals(xs);
+            }
+            if (length != xs.length()) return false;
+            List<Integer> l = xs;
+            for (int i = 0; i < length; i++, l = l.tail()) {
+                if (!same(l.head(), at(i))) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public Result<Integer> find(Function<Integer, Boolean> p) {
+            for (int i = 0; i < length; i++) {
+                if (p.apply(at(i))) return Result.success(at(i));
+            }
+            return Result.empty();
+        }
+
+        @Override
+        public Result<Integer> headOption() {
+            return Result.success(start);
+        }
+
+        @Override
+        public <B> B foldl(Function<B, Function<Integer, B>> f, B s) {
+            B acc = s;
+            for (int i = 0; i < length; i++) {
+                acc = f.apply(acc).apply(at(i));
+            }
+            return acc;
+        }
+    }
+
+    // ---------------------------------------------------------------VectorView
+
+    /**
+     * Sicht auf die Elemente [off, off + length) eines Vectors, ohne sie zu kopieren.
+     * <p>
+     * head, last und die Elemente dazwischen werden mit Vector.get gelesen (O(log32 n)); tail, init,
+     * take und drop verschieben nur die Grenzen und sind O(1). Faltungen, find, any und all laufen
+     * ueber die Blaetter des Vectors. Vector.fromList erkennt die Sicht an dieser Klasse und teilt den
+     * Trie, statt die Elemente zu kopieren. Wie bei Cons vergleichen elem und delete mit ==.
+     */
+    static final class VectorView<A> extends List<A> {
+        private final Vector<A> vector;
+        private final int off;
+        private final int length;
+
+        private VectorView(Vector<A> vector, int off, int length) {
+            this.vector = vector;
+            this.off = off;
+            this.length = length;
+        }
+
+        private A at(int i) {
+            return vector.get(off + i);
+        }
+
+        private List<A> slice(int from, int to) {
+            return from >= to ? list() : from == 0 && to == length ? this : new VectorView<>(vector, off + from, to - from);
+        }
+
+        /**
+         * Der sichtbare Ausschnitt als Vector, geteilt mit dem zugrunde liegenden Trie.
+         */
+        Vector<A> vector() {
+            return vector.drop(off).take(length);
+        }
+
+        private int prefix(Function<A, Boolean> p) {
+            int i = 0;
+            while (i < length && p.apply(at(i))) i++;
+            return i;
+        }
+
+        public A head() {
+            return at(0);
+        }
+
+        public List<A> tail() {
+            return slice(1, length);
+        }
+
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public List<A> setHead(A h) {
+            return new Cons<>(h, tail());
+        }
+
+        public String toString() {
+            StringBuilder sb = new StringBuilder("[");
+            vector().foldl(b -> a -> b.append(a).append(", "), sb);
+            return sb.append("NIL]").toString();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof List) || ((List<?>) o).isEmpty()) return false;
+
+            List<?> list = (List<?>) o;
+
+            return length == list.length() && List.equals(this, list).eval();
+        }
+
+        // -----------------------------------------------------------Instanzmethoden
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public boolean elem(A x) {
+            return vector().find(a -> a == x).isSuccess();
+        }
+
+        @Override
+        public boolean any(Function<A, Boolean> p) {
+            return vector().find(p).isSuccess();
+        }
+
+        @Override
+        public boolean all(Function<A, Boolean> p) {
+            return !vector().find(a -> !p.apply(a)).isSuccess();
+        }
+
+        @Override
+        public <B> List<B> map(Function<A, B> f) {
+            return vector().map(f).toList();
+        }
+
+        @Override
+        public List<A> filter(Function<A, Boolean> f) {
+            Vector<A> v = vector();
+            Vector<A> kept = v.filter(f);
+            return kept == v ? this : kept.toList();
+        }
+
+        @Override
+        public A finde(Function<A, Boolean> f) {
+            return find(f).getOrElse((A) null);
+        }
+
+        @Override
+        public List<A> init() {
+            return slice(0, length - 1);
+        }
+
+        @Override
+        public A last() {
+            return at(length - 1);
+        }
+
+        @Override
+        public List<A> take(int n) {
+            return slice(0, Math.max(0, Math.min(n, length)));
+        }
+
+        @Override
+        public List<A> drop(int n) {
+            return slice(Math.max(0, Math.min(n, length)), length);
+        }
+
+        @Override
+        public List<A> takeWhile(Function<A, Boolean> p) {
+            return take(prefix(p));
+        }
+
+        @Override
+        public List<A> dropWhile(Function<A, Boolean> p) {
+            return drop(prefix(p));
+        }
+
+        @Override
+        public List<A> delete(A x) {
+            int i = prefix(a -> a != x);
+            if (i == length) return this;
+            List<A> rest = drop(i + 1);
+            for (int j = i - 1; j >= 0; j--) {
+                rest = new Cons<>(at(j), rest);
+            }
+            return rest;
+        }
+
+        @Override
+        public boolean isEqualTo(List<A> xs) {
+            return length == xs.length() && List.isEqualTo(this, xs).eval();
+        }
+
+        @Override
+        public Result<A> find(Function<A, Boolean> p) {
+            return vector().find(p);
+        }
+
+        @Override
+        public Result<A> headOption() {
+            return Result.success(head());
+        }
+
+        @Override
+        public <B> B foldl(Function<B, Function<A, B>> f, B s) {
+            return vector().foldl(f, s);
+        }
+    }
+
+    /**
+     * Die Elemente von v als List in O(1), ohne sie zu kopieren; siehe VectorView.
+     */
+    static <A> List<A> view(Vector<A> v) {
+        return v.isEmpty() ? list() : new VectorView<>(v, 0, v.length());
+    }
+
+    /**
+     * Vergleicht die Elemente zweier gleich langer Listen mit ==, wie isEqualTo es verlangt.
+     */
+    private static <A> TailCall<Boolean> isEqualTo(List<A> xs, List<A> ys) {
+        return xs.isEmpty() ? TailCall.ret(true)
+                : xs.head() != ys.head() ? TailCall.ret(false)
+                : TailCall.sus(() -> isEqualTo(xs.tail(), ys.tail()));
+    }
+
+    private static TailCall<Boolean> equals(List<?> xs, List<?> ys) {
+        return xs.isEmpty()
+                ? TailCall.ret(ys.isEmpty())
+                : ys.isEmpty() || !xs.head().equals(ys.head())
+                ? TailCall.ret(false)
+                : TailCall.sus(() -> equals(xs.tail(), ys.tail()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A> List<A> fromArray(Object[] a, int n) {
+        List<A> list = list();
+        for (int i = n - 1; i >= 0; i--) {
+            list = new Cons<>((A) a[i], list);
+        }
+        return list;
+    }
+
     // ---------------------------------------------------------------------List
 
     @SuppressWarnings("unchecked")
@@ -360,31 +879,40 @@ public abstract class List<A> {
     // ----------------------------------------------------------------------Klassenmethoden
 
     public static Integer sum(List<Integer> list) {
-        return sum(list, 0);
-    }
-
-    private static Integer sum(List<Integer> list, int i) {
-        return list.isEmpty() ? i : sum(list.tail(), i + list.head());
+        return foldlInt(Integer::sum, 0, list);
     }
 
     public static Double prod(List<Double> list) {
-        return prod(list, 0.0);
-    }
-
-    private static Double prod(List<Double> list, Double i) {
-        return list.isEmpty() ? i : prod(list.tail(), i * list.head());
+        return foldlDouble((i, x) -> i * x, 0.0, list);
     }
 
     public static <A> List<A> append(List<A> list1, List<A> list2) {
-        return list1.isEmpty() ? list2 : new Cons<A>(list1.head(), append(list1.tail(), list2));
+        return list1.isEmpty() ? list2
+                : list2.isEmpty() ? list1
+                : reverseOnto(reverse(list1), list2).eval();
     }
 
     public static <A> List<A> concat(List<List<A>> list) {
-        return list.isEmpty() ? list() : append(list.head(), concat(list.tail()));
+        return concat(list(), reverse(list)).eval();
+    }
+
+    private static <A> TailCall<List<A>> concat(List<A> acc, List<List<A>> reversed) {
+        return reversed.isEmpty() ? TailCall.ret(acc)
+                : TailCall.sus(() -> concat(append(reversed.head(), acc), reversed.tail()));
     }
 
     public static <A> List<A> reverse(List<A> xs) {
-        return xs.isEmpty() ? list() : append(reverse(xs.tail()), list(xs.head()));
+        return reverseOnto(xs, list()).eval();
+    }
+
+    /**
+     * Legt die Elemente von xs in umgekehrter Reihenfolge vor acc.
+     * Grundbaustein fuer reverse, append und alle Operationen, die ihr Ergebnis
+     * mit einem Akkumulator aufbauen und am Ende einmal umdrehen.
+     */
+    private static <A> TailCall<List<A>> reverseOnto(List<A> xs, List<A> acc) {
+        return xs.isEmpty() ? TailCall.ret(acc)
+                : TailCall.sus(() -> reverseOnto(xs.tail(), new Cons<>(xs.head(), acc)));
     }
 
     public static boolean and(List<Boolean> list) {
@@ -422,8 +950,35 @@ public abstract class List<A> {
 
     // ------------------------------------------------------foldr
 
+    /**
+     * Faltet von rechts. Die Elemente werden einmal in ein Array kopiert und von hinten nach vorne
+     * verarbeitet, daher ist die Rechtsfaltung fuer beliebig lange Listen stacksicher.
+     */
     public static <A, B> B foldr(Function<A, Function<B, B>> f, B s, List<A> xs) {
-        return xs.isEmpty() ? s : f.apply(xs.head()).apply(foldr(f, s, xs.tail()));
+        Object[] a = toArray(xs);
+        B acc = s;
+        for (int i = a.length - 1; i >= 0; i--) {
+            @SuppressWarnings("unchecked")
+            A x = (A) a[i];
+            acc = f.apply(x).apply(acc);
+        }
+        return acc;
+    }
+
+    /**
+     * Rechtsfaltung mit verzoegertem rechtem Argument.
+     * <p>
+     * f bekommt die Faltung des Rests als noch nicht ausgewerteten TailCall. Liefert f ein Ergebnis,
+     * ohne diesen zu benutzen (etwa TailCall.ret(true) bei any), wird der Rest der Liste nie angesehen.
+     * Benutzt f den Rest ueber map oder flatMap, laeuft die Auswertung ueber das Trampolin und ist
+     * ebenfalls stacksicher.
+     */
+    public static <A, B> B foldrLazy(Function<A, Function<TailCall<B>, TailCall<B>>> f, B s, List<A> xs) {
+        return foldrSuspended(f, s, xs).eval();
+    }
+
+    private static <A, B> TailCall<B> foldrSuspended(Function<A, Function<TailCall<B>, TailCall<B>>> f, B s, List<A> xs) {
+        return xs.isEmpty() ? TailCall.ret(s) : f.apply(xs.head()).apply(TailCall.sus(() -> foldrSuspended(f, s, xs.tail())));
     }
 
     public static Integer sum_foldr(List<Integer> list) {
@@ -439,23 +994,23 @@ public abstract class List<A> {
     }
 
     public static <A> boolean elem_foldr(List<A> list, A a) {
-        return foldr(x -> y -> x.equals(a), false, list);
+        return foldrLazy(x -> y -> x.equals(a) ? TailCall.ret(true) : y, false, list);
     }
 
     public static <A> boolean any_foldr(List<A> list, Predicate<A> p) {
-        return foldr(x -> y -> p.test(x) || y, false, list);
+        return foldrLazy(x -> y -> p.test(x) ? TailCall.ret(true) : y, false, list);
     }
 
     public static <A> boolean all_foldr(List<A> list, Predicate<A> p) {
-        return foldr(x -> y -> p.test(x) && y, true, list);
+        return foldrLazy(x -> y -> p.test(x) ? y : TailCall.ret(false), true, list);
     }
 
     public static boolean and_foldr(List<Boolean> list) {
-        return foldr(x -> y -> x && y, true, list);
+        return foldrLazy(x -> y -> x ? y : TailCall.ret(false), true, list);
     }
 
     public static boolean or_foldr(List<Boolean> list) {
-        return foldr(x -> y -> x || y, true, list);
+        return foldrLazy(x -> y -> x ? TailCall.ret(true) : y, true, list);
     }
 
     public static <A> List<A> append_foldr(List<A> list1, List<A> list2) {
@@ -475,7 +1030,7 @@ public abstract class List<A> {
     }
 
     public static <A> List<A> takeWhile_foldr(List<A> list, Predicate<A> p) {
-        return foldr(x -> y -> p.test(x) ? new Cons<A>(x, y) : list(), list(), list);
+        return List.<A, List<A>>foldrLazy(x -> y -> p.test(x) ? y.map(t -> new Cons<>(x, t)) : TailCall.ret(list()), list(), list);
     }
 
     public static <A> String toString_foldr(List<A> list) {
@@ -489,15 +1044,76 @@ public abstract class List<A> {
     // ---------------------------------------------------------foldl
 
     public static <A, B> B foldl(Function<B, Function<A, B>> f, B s, List<A> xs) {
-        return xs.isEmpty() ? s : foldl(f, f.apply(s).apply(xs.head()), xs.tail());
+        return xs.foldl(f, s);
+    }
+
+    /**
+     * Linksfaltung mit einer zweistelligen int-Funktion statt einer geschachtelten Function: es entsteht
+     * keine Closure pro Element, und auf einer Range wird ganz ohne Boxing ueber die Zahlen gelaufen.
+     */
+    public static int foldlInt(IntBinaryOperator f, int s, List<Integer> xs) {
+        int acc = s;
+        if (xs instanceof Range) {
+            Range r = (Range) xs;
+            for (int i = 0; i < r.length; i++) {
+                acc = f.applyAsInt(acc, r.at(i));
+            }
+            return acc;
+        }
+        for (List<Integer> l = xs; !l.isEmpty(); l = l.tail()) {
+            acc = f.applyAsInt(acc, l.head());
+        }
+        return acc;
+    }
+
+    public static long foldlLong(LongBinaryOperator f, long s, List<Long> xs) {
+        long acc = s;
+        for (List<Long> l = xs; !l.isEmpty(); l = l.tail()) {
+            acc = f.applyAsLong(acc, l.head());
+        }
+        return acc;
+    }
+
+    public static double foldlDouble(DoubleBinaryOperator f, double s, List<Double> xs) {
+        double acc = s;
+        for (List<Double> l = xs; !l.isEmpty(); l = l.tail()) {
+            acc = f.applyAsDouble(acc, l.head());
+        }
+        return acc;
+    }
+
+    /**
+     * filter mit einem int-Praedikat; auf einer Range wird nur fuer die Treffer geboxt.
+     */
+    public static List<Integer> filterInt(List<Integer> xs, IntPredicate p) {
+        Object[] out = new Object[Math.min(xs.length(), 16)];
+        int n = 0;
+        if (xs instanceof Range) {
+            Range r = (Range) xs;
+            for (int i = 0; i < r.length; i++) {
+                int x = r.at(i);
+                if (p.test(x)) {
+                    if (n == out.length) out = Arrays.copyOf(out, n * 2);
+                    out[n++] = x;
+                }
+            }
+        } else {
+            for (List<Integer> l = xs; !l.isEmpty(); l = l.tail()) {
+                if (p.test(l.head())) {
+                    if (n == out.length) out = Arrays.copyOf(out, n * 2);
+                    out[n++] = l.head();
+                }
+            }
+        }
+        return fromArray(out, n);
     }
 
     public static Integer sum_foldl(List<Integer> list) {
-        return foldl(x -> y -> x + y, 0, list);
+        return foldlInt((x, y) -> x + y, 0, list);
     }
 
     public static Integer prod_foldl(List<Integer> list) {
-        return foldl(x -> y -> x * y, 1, list);
+        return foldlInt((x, y) -> x * y, 1, list);
     }
 
     public static <A> Integer length_foldl(List<A> list) {
@@ -555,46 +1171,619 @@ public abstract class List<A> {
      * liefern kann, wie das zum Beispiel bei allen arithmetischen Operatoren der Fall ist.
      */
 
+    //-----------------------------------------------------------parallele Faltung
+
+    /**
+     * Unterhalb dieser Laenge wird sequentiell gefaltet, weil sich das Aufteilen nicht lohnt.
+     */
+    public static final int PAR_THRESHOLD = 8192;
+
+    /**
+     * Faltet die Liste parallel auf dem gemeinsamen ForkJoinPool.
+     * <p>
+     * Die Liste wird in Abschnitte zu je threshold Elementen zerlegt, jeder Abschnitt wird mit f
+     * ausgehend von identity links gefaltet und die Teilergebnisse werden mit combine zusammengefuehrt.
+     * Das Ergebnis stimmt mit foldl ueberein, wenn combine assoziativ ist, identity neutral bezueglich
+     * combine ist und f mit combine vertraeglich ist (combine(b, f(identity, a)) == f(b, a)).
+     */
+    public static <A, B> B parFold(Function<B, Function<A, B>> f, Function<B, Function<B, B>> combine, B identity,
+                                   List<A> xs) {
+        return parFold(f, combine, identity, xs, ForkJoinPool.commonPool(), PAR_THRESHOLD);
+    }
+
+    public static <A, B> B parFold(Function<B, Function<A, B>> f, Function<B, Function<B, B>> combine, B identity,
+                                   List<A> xs, ForkJoinPool pool, int threshold) {
+        if (threshold < 1) throw new IllegalArgumentException("threshold must be positive");
+        if (xs.length() <= threshold) return foldl(f, identity, xs);
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        List<A>[] chunks = new List[(xs.length() + threshold - 1) / threshold];
+        List<A> l = xs;
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = l;
+            for (int j = 0; j < threshold && !l.isEmpty(); j++) {
+                l = l.tail();
+            }
+        }
+        return pool.invoke(new ParFold<>(f, combine, identity, chunks, threshold, 0, chunks.length));
+    }
+
+    /**
+     * Reduziert die Liste parallel mit einem assoziativen Operator und dessen neutralem Element.
+     */
+    public static <A> A parReduce(Function<A, Function<A, A>> op, A identity, List<A> xs) {
+        return parFold(op, op, identity, xs);
+    }
+
+    public static <A> A parReduce(Function<A, Function<A, A>> op, A identity, List<A> xs, ForkJoinPool pool,
+                                  int threshold) {
+        return parFold(op, op, identity, xs, pool, threshold);
+    }
+
+    public static Integer sum_parReduce(List<Integer> list) {
+        return parReduce(x -> y -> x + y, 0, list);
+    }
+
+    public static Integer prod_parReduce(List<Integer> list) {
+        return parReduce(x -> y -> x * y, 1, list);
+    }
+
+    /**
+     * Faltet die Abschnitte chunks[from, to) und halbiert den Bereich, solange mehr als ein Abschnitt uebrig ist.
+     */
+    private static class ParFold<A, B> extends RecursiveTask<B> {
+        private static final long serialVersionUID = 1L;
+
+        private final Function<B, Function<A, B>> f;
+        private final Function<B, Function<B, B>> combine;
+        private final B identity;
+        private final List<A>[] chunks;
+        private final int chunkSize;
+        private final int from;
+        private final int to;
+
+        private ParFold(Function<B, Function<A, B>> f, Function<B, Function<B, B>> combine, B identity,
+                        List<A>[] chunks, int chunkSize, int from, int to) {
+            this.f = f;
+            this.combine = combine;
+            this.identity = identity;
+            this.chunks = chunks;
+            this.chunkSize = chunkSize;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected B compute() {
+            if (to - from == 1) {
+                B acc = identity;
+                List<A> l = chunks[from];
+                for (int i = 0; i < chunkSize && !l.isEmpty(); i++, l = l.tail()) {
+                    acc = f.apply(acc).apply(l.head());
+                }
+                return acc;
+            }
+            int mid = (from + to) >>> 1;
+            ParFold<A, B> left = new ParFold<>(f, combine, identity, chunks, chunkSize, from, mid);
+            left.fork();
+            B right = new ParFold<>(f, combine, identity, chunks, chunkSize, mid, to).compute();
+            return combine.apply(left.join()).apply(right);
+        }
+    }
+
+    //-----------------------------------------------------------Result
+
+    /**
+     * Macht aus einer Liste von Results ein Result mit der Liste der Werte. Beim ersten Failure oder
+     * Empty wird abgebrochen und dieses Result geliefert.
+     */
+    public static <A> Result<List<A>> sequence(List<Result<A>> xs) {
+        return traverse(xs, x -> x);
+    }
+
+    /**
+     * Wendet f der Reihe nach auf die Elemente an und haelt beim ersten Ergebnis an, das kein Success
+     * ist; f wird fuer die restlichen Elemente nicht mehr aufgerufen. Laeuft in einer Schleife, die
+     * Werte werden in einem Array gesammelt und am Ende einmal in Zellen umgewandelt.
+     */
+    @SuppressWarnings("unchecked")
+    public static <A, B> Result<List<B>> traverse(List<A> xs, Function<A, Result<B>> f) {
+        Object[] out = new Object[xs.length()];
+        int i = 0;
+        for (List<A> l = xs; !l.isEmpty(); l = l.tail()) {
+            Result<B> r = f.apply(l.head());
+            if (!r.isSuccess()) {
+                return (Result<List<B>>) (Result<?>) r;
+            }
+            out[i++] = r.getOrElse((B) null);
+        }
+        return Result.success(fromArray(out, i));
+    }
+
+    public static <A> Result<List<A>> sequenceAll(List<Result<A>> xs) {
+        return traverseAll(xs, x -> x);
+    }
+
+    /**
+     * Wie traverse, wendet f aber auf alle Elemente an und sammelt die Fehler. Gibt es Failures, ist das
+     * Ergebnis ein Failure, dessen Meldung alle Meldungen enthaelt und dessen Ausnahme die einzelnen
+     * Ausnahmen als suppressed mitfuehrt. Sonst ist das Ergebnis Empty, falls f irgendwo Empty lieferte.
+     */
+    @SuppressWarnings("unchecked")
+    public static <A, B> Result<List<B>> traverseAll(List<A> xs, Function<A, Result<B>> f) {
+        Object[] out = new Object[xs.length()];
+        int i = 0;
+        boolean empty = false;
+        ArrayList<RuntimeException> errors = null;
+        for (List<A> l = xs; !l.isEmpty(); l = l.tail()) {
+            Result<B> r = f.apply(l.head());
+            if (r.isSuccess()) {
+                out[i++] = r.getOrElse((B) null);
+            } else if (r.isFailure()) {
+                if (errors == null) errors = new ArrayList<>();
+                errors.add(r.forEachOrException(x -> { }).getOrElse((RuntimeException) null));
+            } else {
+                empty = true;
+            }
+        }
+        if (errors != null) {
+            StringBuilder message = new StringBuilder();
+            for (RuntimeException e : errors) {
+                if (message.length() > 0) message.append("; ");
+                message.append(e.getMessage());
+            }
+            IllegalStateException e = new IllegalStateException(message.toString());
+            errors.forEach(e::addSuppressed);
+            return Result.failure(e);
+        }
+        return empty ? Result.empty() : Result.success(fromArray(out, i));
+    }
+
+    /**
+     * Abschnittsgroesse fuer parTraverse. Kleiner als PAR_THRESHOLD, weil f hier typischerweise
+     * teuer ist (Validierung eines Datensatzes) und nicht eine einzelne Addition.
+     */
+    public static final int TRAVERSE_THRESHOLD = 256;
+
+    /**
+     * traverse auf dem gemeinsamen ForkJoinPool.
+     */
+    public static <A, B> Result<List<B>> parTraverse(List<A> xs, Function<A, Result<B>> f) {
+        return parTraverse(xs, f, ForkJoinPool.commonPool(), TRAVERSE_THRESHOLD);
+    }
+
+    /**
+     * Wendet f parallel auf die Elemente an und liefert dasselbe Ergebnis wie traverse.
+     * <p>
+     * Sobald ein Element an Position i kein Success liefert, wird fuer Positionen hinter i nichts mehr
+     * berechnet: noch nicht begonnene Abschnitte entfallen ganz, laufende brechen vor dem naechsten
+     * Element ab. Positionen vor i werden weiter ausgewertet, denn ein Fehler dort waere der erste.
+     */
+    @SuppressWarnings("unchecked")
+    public static <A, B> Result<List<B>> parTraverse(List<A> xs, Function<A, Result<B>> f, ForkJoinPool pool,
+                                                     int threshold) {
+        if (threshold < 1) throw new IllegalArgumentException("threshold must be positive");
+        if (xs.length() <= threshold) return traverse(xs, f);
+        Object[] in = toArray(xs);
+        Object[] out = new Object[in.length];
+        AtomicInteger firstFailure = new AtomicInteger(Integer.MAX_VALUE);
+        pool.invoke(new ParTraverse<>(f, in, out, firstFailure, threshold, 0, in.length));
+        int failed = firstFailure.get();
+        if (failed != Integer.MAX_VALUE) {
+            return (Result<List<B>>) out[failed];
+        }
+        for (int i = 0; i < out.length; i++) {
+            out[i] = ((Result<B>) out[i]).getOrElse((B) null);
+        }
+        return Result.success(fromArray(out, out.length));
+    }
+
+    private static class ParTraverse<A, B> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Function<A, Result<B>> f;
+        private final Object[] in;
+        private final Object[] out;
+        private final AtomicInteger firstFailure;
+        private final int threshold;
+        private final int from;
+        private final int to;
+
+        private ParTraverse(Function<A, Result<B>> f, Object[] in, Object[] out, AtomicInteger firstFailure,
+                            int threshold, int from, int to) {
+            this.f = f;
+            this.in = in;
+            this.out = out;
+            this.firstFailure = firstFailure;
+            this.threshold = threshold;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void compute() {
+            if (from > firstFailure.get()) return;
+            if (to - from <= threshold) {
+                for (int i = from; i < to && i < firstFailure.get(); i++) {
+                    Result<B> r = f.apply((A) in[i]);
+                    out[i] = r;
+                    if (!r.isSuccess()) {
+                        firstFailure.accumulateAndGet(i, Math::min);
+                        return;
+                    }
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ParTraverse<>(f, in, out, firstFailure, threshold, from, mid),
+                    new ParTraverse<>(f, in, out, firstFailure, threshold, mid, to));
+        }
+    }
+
+    //-----------------------------------------------------------Sortieren
+
+    /**
+     * Sortiert stabil mit Mergesort in O(n log n). Die Liste wird einmal in ein Array kopiert,
+     * dort von unten nach oben (erst Laeufe der Laenge RUN per Einfuegesortieren, dann Verschmelzen
+     * mit doppelter Breite) sortiert und wieder in Zellen umgewandelt; es gibt keine Rekursion.
+     */
+    public List<A> sortBy(Comparator<? super A> c) {
+        Object[] a = toArray(this);
+        mergeSort(a, new Object[a.length], 0, a.length, c);
+        return fromArray(a, a.length);
+    }
+
+    /**
+     * Wie sortBy, aber die beiden Haelften werden auf dem gemeinsamen ForkJoinPool parallel sortiert
+     * und anschliessend verschmolzen.
+     */
+    public List<A> parSortBy(Comparator<? super A> c) {
+        return parSortBy(c, ForkJoinPool.commonPool(), PAR_THRESHOLD);
+    }
+
+    public List<A> parSortBy(Comparator<? super A> c, ForkJoinPool pool, int threshold) {
+        if (threshold < 1) throw new IllegalArgumentException("threshold must be positive");
+        Object[] a = toArray(this);
+        pool.invoke(new ParSort<>(a, new Object[a.length], 0, a.length, c, threshold));
+        return fromArray(a, a.length);
+    }
+
+    public static <A extends Comparable<? super A>> List<A> sort(List<A> list) {
+        return list.sortBy(Comparator.naturalOrder());
+    }
+
+    public static <A extends Comparable<? super A>> List<A> parSort(List<A> list) {
+        return list.parSortBy(Comparator.naturalOrder());
+    }
+
+    /**
+     * Verschmilzt zwei sortierte Listen in O(n + m). Bei gleichen Elementen kommt xs zuerst.
+     */
+    public static <A> List<A> sortedMerge(List<A> xs, List<A> ys, Comparator<? super A> c) {
+        List<A> acc = list();
+        List<A> l = xs;
+        List<A> r = ys;
+        while (!l.isEmpty() && !r.isEmpty()) {
+            if (c.compare(r.head(), l.head()) < 0) {
+                acc = new Cons<>(r.head(), acc);
+                r = r.tail();
+            } else {
+                acc = new Cons<>(l.head(), acc);
+                l = l.tail();
+            }
+        }
+        return reverseOnto(acc, l.isEmpty() ? r : l).eval();
+    }
+
+    public static <A extends Comparable<? super A>> List<A> sortedMerge(List<A> xs, List<A> ys) {
+        return sortedMerge(xs, ys, Comparator.naturalOrder());
+    }
+
+    private static final int RUN = 32;
+
+    @SuppressWarnings("unchecked")
+    private static <A> void mergeSort(Object[] a, Object[] tmp, int from, int to, Comparator<? super A> c) {
+        for (int lo = from; lo < to; lo += RUN) {
+            int hi = Math.min(lo + RUN, to);
+            for (int i = lo + 1; i < hi; i++) {
+                Object x = a[i];
+                int j = i - 1;
+                while (j >= lo && c.compare((A) a[j], (A) x) > 0) {
+                    a[j + 1] = a[j];
+                    j--;
+                }
+                a[j + 1] = x;
+            }
+        }
+        for (int width = RUN; width < to - from; width *= 2) {
+            for (int lo = from; lo < to - width; lo += 2 * width) {
+                merge(a, tmp, lo, lo + width, Math.min(lo + 2 * width, to), c);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A> void merge(Object[] a, Object[] tmp, int lo, int mid, int hi, Comparator<? super A> c) {
+        if (c.compare((A) a[mid - 1], (A) a[mid]) <= 0) return;
+        System.arraycopy(a, lo, tmp, lo, hi - lo);
+        int i = lo;
+        int j = mid;
+        for (int k = lo; k < hi; k++) {
+            a[k] = i >= mid ? tmp[j++]
+                    : j >= hi ? tmp[i++]
+                    : c.compare((A) tmp[j], (A) tmp[i]) < 0 ? tmp[j++]
+                    : tmp[i++];
+        }
+    }
+
+    private static <A> Object[] toArray(List<A> list) {
+        Object[] a = new Object[list.length()];
+        int i = 0;
+        for (List<A> l = list; !l.isEmpty(); l = l.tail()) {
+            a[i++] = l.head();
+        }
+        return a;
+    }
+
+    private static class ParSort<A> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] a;
+        private final Object[] tmp;
+        private final int from;
+        private final int to;
+        private final Comparator<? super A> c;
+        private final int threshold;
+
+        private ParSort(Object[] a, Object[] tmp, int from, int to, Comparator<? super A> c, int threshold) {
+            this.a = a;
+            this.tmp = tmp;
+            this.from = from;
+            this.to = to;
+            this.c = c;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                mergeSort(a, tmp, from, to, c);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ParSort<>(a, tmp, from, mid, c, threshold), new ParSort<>(a, tmp, mid, to, c, threshold));
+            merge(a, tmp, from, mid, to, c);
+        }
+    }
+
     //-------------------------------------------------------------flatmap
     public static <A, B> List<B> flatMap(Function<A, List<B>> f, List<A> list) {
         return foldr(x -> y -> append(f.apply(x), y), list(), list);
     }
     //--------------------------------------------------------------statische Fabrikmethoden
 
+    /**
+     * Liefert die Zahlen von start bis einschliesslich end in O(1), ohne Zellen anzulegen.
+     */
     public static List<Integer> range(int start, int end) {
-        return start > end ? list() : append(list(start), range(start + 1, end));
+        return range(start, end, 1);
+    }
+
+    /**
+     * Liefert start, start + step, ... bis einschliesslich end. Bei negativer Schrittweite wird
+     * abwaerts gezaehlt; liegt end in der Gegenrichtung, ist das Ergebnis leer.
+     */
+    public static List<Integer> range(int start, int end, int step) {
+        if (step == 0) throw new IllegalArgumentException("step must not be 0");
+        if (step > 0 ? start > end : start < end) return list();
+        return new Range(start, step, Math.toIntExact(((long) end - start) / step + 1));
+    }
+
+    public static List<Integer> rangeDescending(int start, int end) {
+        return range(start, end, -1);
     }
 
+    /**
+     * Zerlegt s an Leerraum in Woerter, ohne regulaeren Ausdruck und ohne leere Woerter.
+     * Leerraum sind wie bei \s in regulaeren Ausdruecken genau Leerzeichen, Tabulator, Zeilenvorschub,
+     * vertikaler Tabulator, Seitenvorschub und Wagenruecklauf (siehe isSpace).
+     * Fuer Dateien, die nicht als ein String in den Speicher passen, gibt es FileSource.words.
+     */
     public static List<String> words(String s) {
-        return s.isEmpty() ? list() : list(s.split("\\s+"));
+        Object[] out = new Object[8];
+        int n = 0;
+        int i = 0;
+        int len = s.length();
+        while (i < len) {
+            while (i < len && isSpace(s.charAt(i))) i++;
+            int start = i;
+            while (i < len && !isSpace(s.charAt(i))) i++;
+            if (i > start) {
+                if (n == out.length) out = Arrays.copyOf(out, n * 2);
+                out[n++] = s.substring(start, i);
+            }
+        }
+        return fromArray(out, n);
+    }
+
+    /**
+     * Leerraum fuer words und FileSource.words, wie \s in regulaeren Ausdruecken. Alle diese Zeichen
+     * sind ASCII, FileSource kann daher direkt auf den UTF-8-Bytes pruefen.
+     */
+    static boolean isSpace(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == 0x0B;
     }
 
     //--------------------------------------------------------------Euler 1 & 5
 
-    public static Integer ggT(int x, int y) {
-        return y == 0 ? x : ggT(y, x % y);
+    public static int ggT(int x, int y) {
+        while (y != 0) {
+            int r = x % y;
+            x = y;
+            y = r;
+        }
+        return x;
     }
 
-    public static Integer kgV(int x, int y) {
+    public static int kgV(int x, int y) {
         return (x * y) / ggT(x, y);
     }
 
     public static Integer euler5(List<Integer> list) {
-        return foldl(y -> x -> kgV(x, y), 1, list);
+        return foldlInt((y, x) -> kgV(x, y), 1, list);
     }
 
     public static List<Integer> euler1(List<Integer> list) {
+        return filterInt(list, x -> (x % 3 == 0 || x % 5 == 0) && x != 0);
+    }
+
+    public static int euler5(IntList list) {
+        return list.foldl(1, List::kgV);
+    }
+
+    public static IntList euler1(IntList list) {
         return list.filter(x -> (x % 3 == 0 || x % 5 == 0) && x != 0);
     }
 
     //----------------------------------------------------------------------Set
-/*    public Set<A> toSet() {
-        return fromList(this);
+    public Set<A> toSet() {
+        return Set.fromList(this);
+    }
+
+    /**
+     * Entfernt Duplikate und behaelt jeweils das erste Vorkommen, in O(n) statt O(n^2),
+     * weil die schon gesehenen Elemente in einem Set statt in einer Liste gesucht werden.
+     */
+    public List<A> nub() {
+        Set<A> seen = Set.empty();
+        List<A> acc = list();
+        for (List<A> l = this; !l.isEmpty(); l = l.tail()) {
+            Set<A> next = seen.insert(l.head());
+            if (next != seen) {
+                acc = new Cons<>(l.head(), acc);
+                seen = next;
+            }
+        }
+        return reverse(acc);
+    }
+
+    //----------------------------------------------------------------------JDK
+
+    /**
+     * Laeuft ueber die Zellen, ohne die Liste zu kopieren.
+     */
+    @Override
+    public Iterator<A> iterator() {
+        return new Iterator<>() {
+            private List<A> current = List.this;
+
+            @Override
+            public boolean hasNext() {
+                return !current.isEmpty();
+            }
+
+            @Override
+            public A next() {
+                if (current.isEmpty()) throw new NoSuchElementException();
+                A a = current.head();
+                current = current.tail();
+                return a;
+            }
+        };
+    }
+
+    /**
+     * SIZED und IMMUTABLE; geteilt wird in der Mitte ueber drop, was auf Range O(1) ist
+     * und auf Cons-Listen nur Zellen ueberspringt, ohne etwas zu kopieren.
+     */
+    @Override
+    public Spliterator<A> spliterator() {
+        return new Split<>(this, length());
+    }
+
+    public java.util.stream.Stream<A> toJavaStream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    public java.util.stream.Stream<A> toParallelJavaStream() {
+        return StreamSupport.stream(spliterator(), true);
     }
 
-    public List<A> nub(){
-        return toSet().toList();
-    }*/
+    @SuppressWarnings("unchecked")
+    public static <A> List<A> fromIterable(Iterable<? extends A> xs) {
+        if (xs instanceof List) return (List<A>) xs;
+        if (xs instanceof Collection) {
+            Object[] a = ((Collection<? extends A>) xs).toArray();
+            return fromArray(a, a.length);
+        }
+        ArrayList<A> buffer = new ArrayList<>();
+        xs.forEach(buffer::add);
+        return fromArray(buffer.toArray(), buffer.size());
+    }
 
+    public static <A> List<A> fromJavaStream(java.util.stream.Stream<? extends A> xs) {
+        Object[] a = xs.toArray();
+        return fromArray(a, a.length);
+    }
 
-}
\ No newline at end of file
+    /**
+     * Sammelt in eine ArrayList und baut die Liste am Ende einmal von hinten auf;
+     * auch fuer parallele java.util.stream-Pipelines geeignet.
+     */
+    public static <A> Collector<A, ?, List<A>> collector() {
+        return Collector.<A, ArrayList<A>, List<A>>of(ArrayList::new, ArrayList::add, (l, r) -> {
+            l.addAll(r);
+            return l;
+        }, l -> fromArray(l.toArray(), l.size()));
+    }
+
+    private static final class Split<A> implements Spliterator<A> {
+        private static final int MIN_SPLIT = 1024;
+
+        private List<A> current;
+        private int remaining;
+
+        private Split(List<A> current, int remaining) {
+            this.current = current;
+            this.remaining = remaining;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super A> action) {
+            if (remaining == 0) return false;
+            action.accept(current.head());
+            current = current.tail();
+            remaining--;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super A> action) {
+            for (; remaining > 0; remaining--) {
+                action.accept(current.head());
+                current = current.tail();
+            }
+        }
+
+        @Override
+        public Spliterator<A> trySplit() {
+            if (remaining < 2 * MIN_SPLIT) return null;
+            int mid = remaining / 2;
+            Split<A> prefix = new Split<>(current, mid);
+            current = current.drop(mid);
+            remaining -= mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+import java.util.Arrays;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Persistente Liste von long-Werten ohne Boxing.
+ * <p>
+ * Die Elemente liegen in long[]-Abschnitten, die wie die Zellen von {@link List} verkettet sind.
+ * Ein Abschnitt wird nach dem Aufbau nicht mehr veraendert und kann deshalb von beliebig vielen
+ * Listen geteilt werden. Faltungen, sum, min und max laufen als Schleifen ueber die Arrays und
+ * erzeugen keine Objekte; map und filter erzeugen genau ein neues Array.
+ */
+public final class LongList {
+
+    /**
+     * Bis zu dieser Groesse wird der vorderste Abschnitt bei cons kopiert statt eine neue Zelle anzulegen.
+     */
+    private static final int SMALL_CHUNK = 32;
+
+    private static final LongList EMPTY = new LongList(new long[0], 0, null, 0);
+
+    private final long[] values;
+    private final int from;
+    private final LongList next;
+    private final int length;
+
+    private LongList(long[] values, int from, LongList next, int length) {
+        this.values = values;
+        this.from = from;
+        this.next = next;
+        this.length = length;
+    }
+
+    // -----------------------------------------------------------Instanzmethoden
+
+    public int length() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    public long head() {
+        if (isEmpty()) throw new IllegalStateException("head called on empty list");
+        return values[from];
+    }
+
+    public LongList tail() {
+        if (isEmpty()) throw new IllegalStateException("tail called on empty list");
+        return from + 1 < values.length ? new LongList(values, from + 1, next, length - 1) : next;
+    }
+
+    public LongList cons(long x) {
+        int n = values.length - from;
+        if (n == 0) {
+            return new LongList(new long[]{x}, 0, EMPTY, 1);
+        }
+        if (n < SMALL_CHUNK) {
+            long[] chunk = new long[n + 1];
+            chunk[0] = x;
+            System.arraycopy(values, from, chunk, 1, n);
+            return new LongList(chunk, 0, next, length + 1);
+        }
+        return new LongList(new long[]{x}, 0, this, length + 1);
+    }
+
+    public LongList drop(int n) {
+        LongList l = this;
+        int k = n;
+        while (k > 0 && !l.isEmpty()) {
+            int inChunk = l.values.length - l.from;
+            if (k < inChunk) {
+                return new LongList(l.values, l.from + k, l.next, l.length - k);
+            }
+            k -= inChunk;
+            l = l.next;
+        }
+        return l;
+    }
+
+    public LongList take(int n) {
+        return n >= length ? this : n <= 0 ? EMPTY : of(prefix(n));
+    }
+
+    public long foldl(long identity, LongBinaryOperator f) {
+        long acc = identity;
+        for (LongList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                acc = f.applyAsLong(acc, l.values[i]);
+            }
+        }
+        return acc;
+    }
+
+    public long sum() {
+        long acc = 0;
+        for (LongList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                acc += l.values[i];
+            }
+        }
+        return acc;
+    }
+
+    public long prod() {
+        long acc = 1;
+        for (LongList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                acc *= l.values[i];
+            }
+        }
+        return acc;
+    }
+
+    public long minimum() {
+        if (isEmpty()) throw new IllegalStateException("minimum called on empty list");
+        long acc = head();
+        for (LongList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                acc = Math.min(acc, l.values[i]);
+            }
+        }
+        return acc;
+    }
+
+    public long maximum() {
+        if (isEmpty()) throw new IllegalStateException("maximum called on empty list");
+        long acc = head();
+        for (LongList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                acc = Math.max(acc, l.values[i]);
+            }
+        }
+        return acc;
+    }
+
+    public boolean elem(long x) {
+        for (LongList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                if (l.values[i] == x) return true;
+            }
+        }
+        return false;
+    }
+
+    public LongList map(LongUnaryOperator f) {
+        long[] out = new long[length];
+        int k = 0;
+        for (LongList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                out[k++] = f.applyAsLong(l.values[i]);
+            }
+        }
+        return of(out);
+    }
+
+    public LongList filter(LongPredicate p) {
+        long[] out = new long[length];
+        int k = 0;
+        for (LongList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                if (p.test(l.values[i])) out[k++] = l.values[i];
+            }
+        }
+        return k == length ? this : of(Arrays.copyOf(out, k));
+    }
+
+    public long[] toArray() {
+        return prefix(length);
+    }
+
+    /**
+     * Die ersten n Elemente (n &lt;= length) als neues Array; nur die dafuer noetigen Abschnitte werden gelesen.
+     */
+    private long[] prefix(int n) {
+        long[] out = new long[n];
+        int k = 0;
+        for (LongList l = this; k < n; l = l.next) {
+            int m = Math.min(n - k, l.values.length - l.from);
+            System.arraycopy(l.values, l.from, out, k, m);
+            k += m;
+        }
+        return out;
+    }
+
+    /**
+     * Wandelt in eine generische List um. Die Zellen werden von hinten nach vorne in einer Schleife aufgebaut.
+     */
+    public List<Long> toList() {
+        long[] a = toArray();
+        List<Long> list = List.list();
+        for (int i = a.length - 1; i >= 0; i--) {
+            list = list.cons(a[i]);
+        }
+        return list;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof LongList && Arrays.equals(toArray(), ((LongList) o).toArray());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (LongList l = this; !l.isEmpty(); l = l.next) {
+            for (int i = l.from; i < l.values.length; i++) {
+                sb.append(l.values[i]).append(", ");
+            }
+        }
+        return sb.append("NIL]").toString();
+    }
+
+    // ----------------------------------------------------------------------Klassenmethoden
+
+    public static LongList empty() {
+        return EMPTY;
+    }
+
+    public static LongList longList(long... a) {
+        return of(a.clone());
+    }
+
+    public static LongList fromList(List<Long> list) {
+        long[] a = new long[list.length()];
+        int i = 0;
+        for (List<Long> l = list; !l.isEmpty(); l = l.tail()) {
+            a[i++] = l.head();
+        }
+        return of(a);
+    }
+
+    public static LongList range(long start, long end) {
+        if (start > end) return EMPTY;
+        long[] a = new long[Math.toIntExact(end - start + 1)];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = start + i;
+        }
+        return of(a);
+    }
+
+    private static LongList of(long[] a) {
+        return a.length == 0 ? EMPTY : new LongList(a, 0, EMPTY, a.length);
+    }
+}
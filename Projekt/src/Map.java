@@ -0,0 +1,385 @@
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Persistente Abbildung von Schluesseln auf Werte als Hash Array Mapped Trie (HAMT),
+ * aufgebaut wie {@link Set}: jeder Knoten haelt eine 32-Bit-Belegungsmaske und ein kompaktes Array,
+ * in dem Schluessel und Wert paarweise nebeneinander liegen. Steht an der Schluesselposition null,
+ * enthaelt die Wertposition einen Unterknoten.
+ * <p>
+ * get, put und remove brauchen O(log32 n) Schritte und kopieren nur den Pfad zur geaenderten Stelle.
+ * Zum Befuellen mit vielen Eintraegen gibt es den {@link Builder}: er aendert die Knoten, die er
+ * selbst angelegt hat, direkt und kopiert nur Knoten, die er von einer bestehenden Map uebernimmt.
+ * <p>
+ * Wie bei {@link Tuple} sind weder Schluessel noch Werte null.
+ */
+public final class Map<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    @SuppressWarnings("rawtypes")
+    private static final Map EMPTY = new Map<>(Bitmap.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+
+    private Map(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    // -----------------------------------------------------------Instanzmethoden
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Result<V> get(K key) {
+        Object v = key == null ? null : root.find(0, hash(key), key);
+        return v == null ? Result.empty() : Result.success((V) v);
+    }
+
+    public boolean containsKey(K key) {
+        return key != null && root.find(0, hash(key), key) != null;
+    }
+
+    public Map<K, V> put(K key, V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        boolean[] added = {false};
+        Node n = root.put(null, 0, hash(key), key, value, added);
+        return n == root ? this : new Map<>(n, added[0] ? size + 1 : size);
+    }
+
+    public Map<K, V> remove(K key) {
+        if (key == null) return this;
+        Node n = root.remove(0, hash(key), key);
+        return n == root ? this : new Map<>(n == null ? Bitmap.EMPTY : n, size - 1);
+    }
+
+    /**
+     * Ersetzt den Wert zu key durch f(wert). Ist key nicht enthalten, bleibt die Map unveraendert.
+     */
+    public Map<K, V> update(K key, Function<V, V> f) {
+        return get(key).map(v -> put(key, f.apply(v))).getOrElse(this);
+    }
+
+    /**
+     * Traegt value unter key ein. Ist key schon vorhanden, wird f(alt)(value) eingetragen.
+     */
+    public Map<K, V> merge(K key, V value, Function<V, Function<V, V>> f) {
+        return put(key, get(key).map(old -> f.apply(old).apply(value)).getOrElse(value));
+    }
+
+    public List<Tuple<K, V>> toList() {
+        return root.collect(List.list());
+    }
+
+    public List<K> keys() {
+        return toList().map(t -> t.fst);
+    }
+
+    public List<V> values() {
+        return toList().map(t -> t.snd);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Map)) return false;
+        @SuppressWarnings("unchecked")
+        Map<K, V> that = (Map<K, V>) o;
+        return size == that.size && toList().all(t -> that.get(t.fst).exists(t.snd::equals));
+    }
+
+    @Override
+    public int hashCode() {
+        return toList().foldl(h -> t -> h + t.hashCode(), 0);
+    }
+
+    @Override
+    public String toString() {
+        return "Map" + toList();
+    }
+
+    // ----------------------------------------------------------------------Klassenmethoden
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> Map<K, V> empty() {
+        return EMPTY;
+    }
+
+    public static <K, V> Builder<K, V> builder() {
+        return new Builder<>(Bitmap.EMPTY, 0);
+    }
+
+    public static <K, V> Map<K, V> fromList(List<Tuple<K, V>> list) {
+        Builder<K, V> b = builder();
+        for (List<Tuple<K, V>> l = list; !l.isEmpty(); l = l.tail()) {
+            b.put(l.head().fst, l.head().snd);
+        }
+        return b.build();
+    }
+
+    /**
+     * Liefert einen Builder, der mit den Eintraegen dieser Map beginnt. Die Map selbst bleibt unveraendert.
+     */
+    public Builder<K, V> toBuilder() {
+        return new Builder<>(root, size);
+    }
+
+    private static int hash(Object a) {
+        int h = a.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    // ----------------------------------------------------------------------Builder
+
+    /**
+     * Sammelt Eintraege ohne Zwischenversionen. Nach build() kann der Builder nicht weiter benutzt werden,
+     * damit die gelieferte Map nie mehr veraendert wird.
+     */
+    public static final class Builder<K, V> {
+        private Object edit = new Object();
+        private Node root;
+        private int size;
+
+        private Builder(Node root, int size) {
+            this.root = root;
+            this.size = size;
+        }
+
+        public Builder<K, V> put(K key, V value) {
+            if (edit == null) throw new IllegalStateException("put called after build");
+            Objects.requireNonNull(key);
+            Objects.requireNonNull(value);
+            boolean[] added = {false};
+            root = root.put(edit, 0, hash(key), key, value, added);
+            if (added[0]) size++;
+            return this;
+        }
+
+        public Map<K, V> build() {
+            if (edit == null) throw new IllegalStateException("build called twice");
+            edit = null;
+            return new Map<>(root, size);
+        }
+    }
+
+    // ----------------------------------------------------------------------Knoten
+
+    private abstract static class Node {
+        /**
+         * Der Wert zu key oder null.
+         */
+        abstract Object find(int shift, int hash, Object key);
+
+        /**
+         * Ist edit nicht null und gehoert der Knoten zu diesem edit, wird er direkt geaendert.
+         * Sonst wird kopiert; unveraenderte Knoten werden unveraendert zurueckgegeben.
+         */
+        abstract Node put(Object edit, int shift, int hash, Object key, Object value, boolean[] added);
+
+        /**
+         * Liefert denselben Knoten, wenn key nicht enthalten ist, und null, wenn der Knoten leer wird.
+         */
+        abstract Node remove(int shift, int hash, Object key);
+
+        abstract <K, V> List<Tuple<K, V>> collect(List<Tuple<K, V>> acc);
+    }
+
+    private static final class Bitmap extends Node {
+        private static final Bitmap EMPTY = new Bitmap(null, 0, new Object[0]);
+
+        private final Object edit;
+        private int bitmap;
+        private Object[] array;
+
+        private Bitmap(Object edit, int bitmap, Object[] array) {
+            this.edit = edit;
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        private Bitmap editable(Object edit) {
+            return edit != null && edit == this.edit ? this : new Bitmap(edit, bitmap, array.clone());
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) return null;
+            int idx = 2 * index(bit);
+            Object k = array[idx];
+            Object v = array[idx + 1];
+            return k == null ? ((Node) v).find(shift + BITS, hash, key) : key.equals(k) ? v : null;
+        }
+
+        @Override
+        Node put(Object edit, int shift, int hash, Object key, Object value, boolean[] added) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            int idx = 2 * index(bit);
+            if ((bitmap & bit) == 0) {
+                added[0] = true;
+                Object[] copy = new Object[array.length + 2];
+                System.arraycopy(array, 0, copy, 0, idx);
+                copy[idx] = key;
+                copy[idx + 1] = value;
+                System.arraycopy(array, idx, copy, idx + 2, array.length - idx);
+                Bitmap n = edit != null && edit == this.edit ? this : new Bitmap(edit, bitmap, null);
+                n.bitmap = bitmap | bit;
+                n.array = copy;
+                return n;
+            }
+            Object k = array[idx];
+            Object v = array[idx + 1];
+            if (k == null) {
+                Node child = ((Node) v).put(edit, shift + BITS, hash, key, value, added);
+                if (child == v) return this;
+                Bitmap n = editable(edit);
+                n.array[idx + 1] = child;
+                return n;
+            }
+            if (key.equals(k)) {
+                if (value == v) return this;
+                Bitmap n = editable(edit);
+                n.array[idx + 1] = value;
+                return n;
+            }
+            added[0] = true;
+            Bitmap n = editable(edit);
+            n.array[idx] = null;
+            n.array[idx + 1] = pair(edit, shift + BITS, k, v, hash, key, value);
+            return n;
+        }
+
+        @Override
+        Node remove(int shift, int hash, Object key) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) return this;
+            int idx = 2 * index(bit);
+            Object k = array[idx];
+            Object v = array[idx + 1];
+            if (k == null) {
+                Node child = ((Node) v).remove(shift + BITS, hash, key);
+                if (child == v) return this;
+                if (child != null) {
+                    Object[] copy = array.clone();
+                    copy[idx + 1] = child;
+                    return new Bitmap(null, bitmap, copy);
+                }
+            } else if (!key.equals(k)) {
+                return this;
+            }
+            if (array.length == 2) return null;
+            Object[] copy = new Object[array.length - 2];
+            System.arraycopy(array, 0, copy, 0, idx);
+            System.arraycopy(array, idx + 2, copy, idx, array.length - idx - 2);
+            return new Bitmap(null, bitmap & ~bit, copy);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        <K, V> List<Tuple<K, V>> collect(List<Tuple<K, V>> acc) {
+            List<Tuple<K, V>> result = acc;
+            for (int i = 0; i < array.length; i += 2) {
+                result = array[i] == null
+                        ? ((Node) array[i + 1]).collect(result)
+                        : result.cons(new Tuple<>((K) array[i], (V) array[i + 1]));
+            }
+            return result;
+        }
+
+        private static Node pair(Object edit, int shift, Object k1, Object v1, int h2, Object k2, Object v2) {
+            int h1 = hash(k1);
+            if (h1 == h2 || shift >= Integer.SIZE) {
+                return new Collision(edit, h1, new Object[]{k1, v1, k2, v2});
+            }
+            boolean[] ignored = {false};
+            return EMPTY.put(edit, shift, h1, k1, v1, ignored).put(edit, shift, h2, k2, v2, ignored);
+        }
+    }
+
+    private static final class Collision extends Node {
+        private final Object edit;
+        private final int hash;
+        private Object[] array;
+
+        private Collision(Object edit, int hash, Object[] array) {
+            this.edit = edit;
+            this.hash = hash;
+            this.array = array;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) return i;
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            if (hash != this.hash) return null;
+            int i = indexOf(key);
+            return i < 0 ? null : array[i + 1];
+        }
+
+        @Override
+        Node put(Object edit, int shift, int hash, Object key, Object value, boolean[] added) {
+            if (hash != this.hash) {
+                return new Bitmap(edit, 1 << ((this.hash >>> shift) & MASK), new Object[]{null, this})
+                        .put(edit, shift, hash, key, value, added);
+            }
+            int i = indexOf(key);
+            if (i >= 0 && array[i + 1] == value) return this;
+            Object[] copy;
+            if (i >= 0) {
+                copy = array.clone();
+                copy[i + 1] = value;
+            } else {
+                added[0] = true;
+                copy = Arrays.copyOf(array, array.length + 2);
+                copy[array.length] = key;
+                copy[array.length + 1] = value;
+            }
+            if (edit != null && edit == this.edit) {
+                array = copy;
+                return this;
+            }
+            return new Collision(edit, this.hash, copy);
+        }
+
+        @Override
+        Node remove(int shift, int hash, Object key) {
+            if (hash != this.hash) return this;
+            int i = indexOf(key);
+            if (i < 0) return this;
+            if (array.length == 2) return null;
+            Object[] copy = new Object[array.length - 2];
+            System.arraycopy(array, 0, copy, 0, i);
+            System.arraycopy(array, i + 2, copy, i, array.length - i - 2);
+            return new Collision(null, this.hash, copy);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        <K, V> List<Tuple<K, V>> collect(List<Tuple<K, V>> acc) {
+            List<Tuple<K, V>> result = acc;
+            for (int i = 0; i < array.length; i += 2) {
+                result = result.cons(new Tuple<>((K) array[i], (V) array[i + 1]));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Eine Function, die ihre Ergebnisse zwischenspeichert. Erzeugt wird sie ueber Function.memoize.
+ * <p>
+ * Alle Varianten sind fuer gleichzeitige Aufrufer gedacht. Fuer jeden Schluessel wird f genau einmal
+ * berechnet: der erste Aufrufer legt einen noch offenen CompletableFuture in den Cache und rechnet
+ * ausserhalb jeder Sperre, alle anderen warten auf diesen Future. Wirft f eine Ausnahme, wird der
+ * Eintrag wieder entfernt und die Ausnahme an alle Wartenden weitergegeben; ein spaeterer Aufruf
+ * rechnet neu. Ruft f sich rekursiv mit demselben Schluessel auf, blockiert der Aufruf.
+ * <p>
+ * hits() zaehlt Aufrufe, die ein vorhandenes (auch ein noch laufendes) Ergebnis bekommen haben,
+ * misses() die Aufrufe, die f ausgefuehrt haben. null ist als Schluessel nicht erlaubt.
+ */
+public abstract class Memoizer<T, U> implements Function<T, U> {
+
+    final Function<T, U> f;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private Memoizer(Function<T, U> f) {
+        this.f = Objects.requireNonNull(f);
+    }
+
+    // -----------------------------------------------------------Instanzmethoden
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Anzahl der gespeicherten Eintraege.
+     */
+    public abstract int size();
+
+    public abstract void clear();
+
+    /**
+     * Wartet auf ein vorhandenes Ergebnis und zaehlt den Treffer.
+     */
+    U hit(CompletableFuture<U> future) {
+        hits.increment();
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Berechnet f fuer einen Future, den dieser Aufrufer gerade in den Cache gelegt hat.
+     * Bei einer Ausnahme wird der Eintrag ueber evict entfernt.
+     */
+    U compute(T arg, CompletableFuture<U> future, Runnable evict) {
+        misses.increment();
+        try {
+            U u = f.apply(arg);
+            future.complete(u);
+            return u;
+        } catch (RuntimeException | Error e) {
+            evict.run();
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // ----------------------------------------------------------------------Klassenmethoden
+
+    static <T, U> Memoizer<T, U> unbounded(Function<T, U> f) {
+        return new Unbounded<>(f);
+    }
+
+    static <T, U> Memoizer<T, U> lru(Function<T, U> f, int maxSize) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be positive");
+        return new Lru<>(f, maxSize);
+    }
+
+    static <T, U> Memoizer<T, U> expiring(Function<T, U> f, Duration ttl) {
+        if (ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("ttl must be positive");
+        return new Expiring<>(f, ttl.toNanos());
+    }
+
+    // ----------------------------------------------------------------------Unbounded
+
+    private static final class Unbounded<T, U> extends Memoizer<T, U> {
+        private final ConcurrentHashMap<T, CompletableFuture<U>> cache = new ConcurrentHashMap<>();
+
+        private Unbounded(Function<T, U> f) {
+            super(f);
+        }
+
+        @Override
+        public U apply(T arg) {
+            CompletableFuture<U> future = cache.get(arg);
+            if (future != null) {
+                return hit(future);
+            }
+            CompletableFuture<U> mine = new CompletableFuture<>();
+            future = cache.putIfAbsent(arg, mine);
+            return future != null ? hit(future) : compute(arg, mine, () -> cache.remove(arg, mine));
+        }
+
+        @Override
+        public int size() {
+            return cache.size();
+        }
+
+        @Override
+        public void clear() {
+            cache.clear();
+        }
+    }
+
+    // ----------------------------------------------------------------------Lru
+
+    /**
+     * Haelt hoechstens maxSize Eintraege und verdraengt den am laengsten nicht benutzten.
+     * <p>
+     * Statt einer globalen Sperre gibt es mehrere Segmente, jedes eine LinkedHashMap in
+     * Zugriffsreihenfolge mit eigener Sperre; ein Schluessel gehoert ueber seinen Hashwert zu genau
+     * einem Segment. Ein Segment fasst mindestens MIN_SEGMENT_CAPACITY Eintraege (kleine Caches haben nur
+     * ein Segment), damit sich wenige Schluessel, die zufaellig im selben Segment landen, nicht gegenseitig
+     * verdraengen, solange der Cache weit unter maxSize liegt. Die Reihenfolge ist pro Segment exakt und
+     * insgesamt angenaehert. Die Sperre wird nur zum Nachschlagen und Einfuegen gehalten, f laeuft ausserhalb.
+     * <p>
+     * Verdraengt werden nur fertige Eintraege. Ein noch laufender Future bleibt im Cache, sonst wuerde ein
+     * weiterer Aufrufer mit demselben Schluessel f ein zweites Mal starten; solange viele Berechnungen
+     * gleichzeitig laufen, kann ein Segment daher kurz mehr als seine Kapazitaet halten.
+     */
+    private static final class Lru<T, U> extends Memoizer<T, U> {
+        private static final int MAX_SEGMENTS = 16;
+        private static final int MIN_SEGMENT_CAPACITY = 8;
+
+        private final Segment<T, U>[] segments;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Lru(Function<T, U> f, int maxSize) {
+            super(f);
+            int n = Math.min(MAX_SEGMENTS, Integer.highestOneBit(Math.max(1, maxSize / MIN_SEGMENT_CAPACITY)));
+            segments = new Segment[n];
+            for (int i = 0; i < n; i++) {
+                segments[i] = new Segment<>(maxSize / n + (i < maxSize % n ? 1 : 0));
+            }
+        }
+
+        private Segment<T, U> segment(T arg) {
+            int h = arg.hashCode();
+            return segments[(h ^ (h >>> 16)) & (segments.length - 1)];
+        }
+
+        @Override
+        public U apply(T arg) {
+            Segment<T, U> segment = segment(Objects.requireNonNull(arg));
+            CompletableFuture<U> future;
+            CompletableFuture<U> mine = new CompletableFuture<>();
+            synchronized (segment) {
+                future = segment.get(arg);
+                if (future == null) {
+                    segment.put(arg, mine);
+                }
+            }
+            if (future != null) {
+                return hit(future);
+            }
+            return compute(arg, mine, () -> {
+                synchronized (segment) {
+                    segment.remove(arg, mine);
+                }
+            });
+        }
+
+        @Override
+        public int size() {
+            int n = 0;
+            for (Segment<T, U> segment : segments) {
+                synchronized (segment) {
+                    n += segment.size();
+                }
+            }
+            return n;
+        }
+
+        @Override
+        public void clear() {
+            for (Segment<T, U> segment : segments) {
+                synchronized (segment) {
+                    segment.clear();
+                }
+            }
+        }
+
+        private static final class Segment<T, U> extends LinkedHashMap<T, CompletableFuture<U>> {
+            private static final long serialVersionUID = 1L;
+
+            private final int capacity;
+
+            private Segment(int capacity) {
+                super(16, 0.75f, true);
+                this.capacity = capacity;
+            }
+
+            /**
+             * Entfernt den am laengsten nicht benutzten fertigen Eintrag selbst und liefert deshalb
+             * immer false.
+             */
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<T, CompletableFuture<U>> eldest) {
+                if (size() <= capacity) {
+                    return false;
+                }
+                for (Iterator<CompletableFuture<U>> it = values().iterator(); it.hasNext(); ) {
+                    if (it.next().isDone()) {
+                        it.remove();
+                        return false;
+                    }
+                }
+                return false;
+            }
+        }
+    }
+
+    // ----------------------------------------------------------------------Expiring
+
+    /**
+     * Ein Eintrag gilt ttl Nanosekunden ab dem Beginn seiner Berechnung. Abgelaufene Eintraege werden
+     * beim naechsten Zugriff ersetzt; zusaetzlich raeumt jeder SWEEP-te Fehlzugriff den ganzen Cache auf,
+     * damit Schluessel, die nie wieder gefragt werden, nicht liegen bleiben.
+     */
+    private static final class Expiring<T, U> extends Memoizer<T, U> {
+        private static final int SWEEP = 1024;
+
+        private final ConcurrentHashMap<T, Entry<U>> cache = new ConcurrentHashMap<>();
+        private final long ttl;
+
+        private Expiring(Function<T, U> f, long ttl) {
+            super(f);
+            this.ttl = ttl;
+        }
+
+        @Override
+        public U apply(T arg) {
+            long now = System.nanoTime();
+            Entry<U> entry = cache.get(arg);
+            if (entry != null && !entry.expired(now)) {
+                return hit(entry.future);
+            }
+            Entry<U> mine = new Entry<>(new CompletableFuture<>(), now + ttl);
+            boolean won = entry == null ? cache.putIfAbsent(arg, mine) == null : cache.replace(arg, entry, mine);
+            if (!won) {
+                return apply(arg);
+            }
+            if (misses() % SWEEP == SWEEP - 1) {
+                cache.values().removeIf(e -> e != mine && e.expired(now));
+            }
+            return compute(arg, mine.future, () -> cache.remove(arg, mine));
+        }
+
+        @Override
+        public int size() {
+            return cache.size();
+        }
+
+        @Override
+        public void clear() {
+            cache.clear();
+        }
+
+        private static final class Entry<U> {
+            private final CompletableFuture<U> future;
+            private final long expires;
+
+            private Entry(CompletableFuture<U> future, long expires) {
+                this.future = future;
+                this.expires = expires;
+            }
+
+            private boolean expired(long now) {
+                return now - expires >= 0;
+            }
+        }
+    }
+}
@@ -10,6 +10,9 @@ public abstract class Result<V> implements Serializable {
     @SuppressWarnings("rawtypes")
     private static Result empty = new Empty();
 
+    private static final Result<Boolean> TRUE = new Success<>(true);
+    private static final Result<Boolean> FALSE = new Success<>(false);
+
     private Result() {
     }
 
@@ -19,6 +22,33 @@ public abstract class Result<V> implements Serializable {
 
     public abstract <U> Result<U> map(Function<V, U> f);
 
+    public abstract <U> Result<U> flatMap(Function<V, Result<U>> f);
+
+    /**
+     * Ersetzt bei einem Failure die Meldung; die urspruengliche Ausnahme bleibt als Ursache erhalten.
+     * Success und Empty werden unveraendert zurueckgegeben.
+     */
+    public abstract Result<V> mapFailure(String message);
+
+    /**
+     * Macht aus einem Failure einen Success mit dem Wert von f. Success und Empty bleiben unveraendert.
+     */
+    public abstract Result<V> recover(Function<RuntimeException, V> f);
+
+    /**
+     * Ein Success, der p nicht erfuellt, wird zu Empty.
+     */
+    public abstract Result<V> filter(Function<V, Boolean> p);
+
+    /**
+     * Ein Success, der p nicht erfuellt, wird zu einem Failure mit message (ohne Stacktrace).
+     */
+    public abstract Result<V> filter(Function<V, Boolean> p, String message);
+
+    public abstract Result<String> forEachOrFail(Effect<V> c);
+
+    public abstract Result<RuntimeException> forEachOrException(Effect<V> c);
+
     public abstract boolean equals(Object o);
 
     public Result<V> orElse(Supplier<Result<V>> defaultValue) {
@@ -29,6 +59,14 @@ public abstract class Result<V> implements Serializable {
         return map(p).getOrElse(false);
     }
 
+    public boolean isSuccess() {
+        return this instanceof Success;
+    }
+
+    public boolean isFailure() {
+        return this instanceof Failure;
+    }
+
     private static class Empty<V> extends Result<V> {
         public Empty() {
             super();
@@ -48,6 +86,26 @@ public abstract class Result<V> implements Serializable {
             return empty();
         }
 
+        @Override
+        public Result<V> mapFailure(String message) {
+            return this;
+        }
+
+        @Override
+        public Result<V> recover(Function<RuntimeException, V> f) {
+            return this;
+        }
+
+        @Override
+        public Result<V> filter(Function<V, Boolean> p) {
+            return this;
+        }
+
+        @Override
+        public Result<V> filter(Function<V, Boolean> p, String message) {
+            return this;
+        }
+
         @Override
         public String toString() {
             return "Empty()";
@@ -67,6 +125,11 @@ public abstract class Result<V> implements Serializable {
         public Result<String> forEachOrFail(Effect<V> c) {
             return empty();
         }
+
+        @Override
+        public Result<RuntimeException> forEachOrException(Effect<V> c) {
+            return empty();
+        }
     }
 
     private static class Failure<V> extends Result<V> {
@@ -108,13 +171,43 @@ public abstract class Result<V> implements Serializable {
         }
 
         @Override
+        @SuppressWarnings("unchecked")
         public <U> Result<U> map(Function<V, U> f) {
-            return failure(exception);
+            return (Result<U>) this;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <U> Result<U> flatMap(Function<V, Result<U>> f) {
+            return (Result<U>) this;
         }
 
+        @Override
+        public Result<V> mapFailure(String message) {
+            return new Failure<>(new StacklessException(message, exception));
+        }
+
+        @Override
+        public Result<V> recover(Function<RuntimeException, V> f) {
+            return success(f.apply(exception));
+        }
+
+        @Override
+        public Result<V> filter(Function<V, Boolean> p) {
+            return this;
+        }
+
+        @Override
+        public Result<V> filter(Function<V, Boolean> p, String message) {
+            return this;
+        }
+
+        @Override
         public Result<String> forEachOrFail(Effect<V> c) {
             return success(exception.getMessage());
         }
+
+        @Override
         public Result<RuntimeException> forEachOrException(Effect<V> c) {
             return success(exception);
         }
@@ -154,16 +247,81 @@ public abstract class Result<V> implements Serializable {
             return success(f.apply(value));
         }
 
+        @Override
+        public <U> Result<U> flatMap(Function<V, Result<U>> f) {
+            return f.apply(value);
+        }
+
+        @Override
+        public Result<V> orElse(Supplier<Result<V>> defaultValue) {
+            return this;
+        }
+
+        @Override
+        public Result<V> mapFailure(String message) {
+            return this;
+        }
+
+        @Override
+        public Result<V> recover(Function<RuntimeException, V> f) {
+            return this;
+        }
+
+        @Override
+        public Result<V> filter(Function<V, Boolean> p) {
+            return p.apply(value) ? this : empty();
+        }
+
+        @Override
+        public Result<V> filter(Function<V, Boolean> p, String message) {
+            return p.apply(value) ? this : stacklessFailure(message);
+        }
+
+        @Override
         public Result<String> forEachOrFail(Effect<V> e) {
             e.apply(this.value);
             return empty();
         }
+
+        @Override
+        public Result<RuntimeException> forEachOrException(Effect<V> e) {
+            e.apply(this.value);
+            return empty();
+        }
+    }
+
+    /**
+     * IllegalStateException ohne Stacktrace. Fuer Fehler, die als normales Ergebnis erwartet werden,
+     * etwa in Validierungsschleifen: fillInStackTrace ist dort sonst der groesste Kostenfaktor.
+     */
+    private static final class StacklessException extends IllegalStateException {
+        private static final long serialVersionUID = 1L;
+
+        private StacklessException(String message) {
+            super(message);
+        }
+
+        private StacklessException(String message, Throwable cause) {
+            super(message, cause);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
     }
 
     public static <V> Result<V> failure(String message) {
         return new Failure<>(message);
     }
 
+    /**
+     * Wie failure(message), aber ohne Stacktrace und damit fast so billig wie ein Success.
+     */
+    public static <V> Result<V> stacklessFailure(String message) {
+        return new Failure<>(new StacklessException(message));
+    }
+
     public static <V> Result<V> failure(Exception e) {
         return new Failure<V>(e);
     }
@@ -172,8 +330,14 @@ public abstract class Result<V> implements Serializable {
         return new Failure<V>(e);
     }
 
+    /**
+     * Fuer true und false werden gemeinsame Instanzen geliefert.
+     */
+    @SuppressWarnings("unchecked")
     public static <V> Result<V> success(V value) {
-        return new Success<>(value);
+        return value == Boolean.TRUE ? (Result<V>) TRUE
+                : value == Boolean.FALSE ? (Result<V>) FALSE
+                : new Success<>(value);
     }
 
     @SuppressWarnings("unchecked")
@@ -0,0 +1,291 @@
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Persistente Menge als Hash Array Mapped Trie (HAMT).
+ * <p>
+ * Der Hashwert eines Elements wird in Gruppen zu je 5 Bit zerlegt. Jeder Knoten merkt sich in einer
+ * 32-Bit-Maske, welche der 32 moeglichen Kinder belegt sind, und speichert nur diese in einem
+ * kompakten Array. Ein Eintrag ist entweder direkt ein Element oder ein Unterknoten fuer die naechsten
+ * 5 Bit. contains, insert und remove brauchen damit O(log32 n) Schritte; Aenderungen kopieren nur den
+ * Pfad zur betroffenen Stelle, der Rest wird mit der alten Menge geteilt.
+ * <p>
+ * Elemente mit vollstaendig gleichem Hashwert landen in einem Kollisionsknoten, der linear durchsucht wird.
+ * null ist als Element nicht erlaubt.
+ */
+public final class Set<A> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    @SuppressWarnings("rawtypes")
+    private static final Set EMPTY = new Set<>(Bitmap.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+
+    private Set(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    // -----------------------------------------------------------Instanzmethoden
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(A a) {
+        return a != null && root.contains(a, hash(a), 0);
+    }
+
+    public Set<A> insert(A a) {
+        Objects.requireNonNull(a);
+        Node n = root.insert(a, hash(a), 0);
+        return n == root ? this : new Set<>(n, size + 1);
+    }
+
+    public Set<A> remove(A a) {
+        if (a == null) return this;
+        Node n = root.remove(a, hash(a), 0);
+        return n == root ? this : new Set<>(n == null ? Bitmap.EMPTY : n, size - 1);
+    }
+
+    public List<A> toList() {
+        return root.collect(List.list());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Set)) return false;
+        @SuppressWarnings("unchecked")
+        Set<A> that = (Set<A>) o;
+        return size == that.size && toList().all(that::contains);
+    }
+
+    @Override
+    public int hashCode() {
+        return toList().foldl(h -> a -> h + a.hashCode(), 0);
+    }
+
+    @Override
+    public String toString() {
+        return "Set" + toList();
+    }
+
+    // ----------------------------------------------------------------------Klassenmethoden
+
+    @SuppressWarnings("unchecked")
+    public static <A> Set<A> empty() {
+        return EMPTY;
+    }
+
+    @SafeVarargs
+    public static <A> Set<A> set(A... a) {
+        Set<A> s = empty();
+        for (A x : a) {
+            s = s.insert(x);
+        }
+        return s;
+    }
+
+    public static <A> Set<A> fromList(List<A> list) {
+        return list.foldl(s -> s::insert, empty());
+    }
+
+    private static int hash(Object a) {
+        int h = a.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    // ----------------------------------------------------------------------Knoten
+
+    private abstract static class Node {
+        abstract boolean contains(Object a, int hash, int shift);
+
+        /**
+         * Liefert denselben Knoten, wenn das Element schon enthalten ist.
+         */
+        abstract Node insert(Object a, int hash, int shift);
+
+        /**
+         * Liefert denselben Knoten, wenn das Element nicht enthalten ist, und null, wenn der Knoten leer wird.
+         */
+        abstract Node remove(Object a, int hash, int shift);
+
+        /**
+         * Das einzige Element, falls der Knoten genau ein Element und keine Unterknoten enthaelt, sonst null.
+         * Wird beim Entfernen benutzt, um solche Knoten in den Elternknoten hochzuziehen.
+         */
+        abstract Object single();
+
+        abstract <A> List<A> collect(List<A> acc);
+    }
+
+    private static final class Bitmap extends Node {
+        private static final Bitmap EMPTY = new Bitmap(0, new Object[0]);
+
+        private final int bitmap;
+        private final Object[] slots;
+
+        private Bitmap(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        boolean contains(Object a, int hash, int shift) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) return false;
+            Object slot = slots[index(bit)];
+            return slot instanceof Node ? ((Node) slot).contains(a, hash, shift + BITS) : slot.equals(a);
+        }
+
+        @Override
+        Node insert(Object a, int hash, int shift) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            int idx = index(bit);
+            if ((bitmap & bit) == 0) {
+                Object[] copy = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, copy, 0, idx);
+                copy[idx] = a;
+                System.arraycopy(slots, idx, copy, idx + 1, slots.length - idx);
+                return new Bitmap(bitmap | bit, copy);
+            }
+            Object slot = slots[idx];
+            Node child;
+            if (slot instanceof Node) {
+                child = ((Node) slot).insert(a, hash, shift + BITS);
+                if (child == slot) return this;
+            } else if (slot.equals(a)) {
+                return this;
+            } else {
+                child = pair(slot, hash(slot), a, hash, shift + BITS);
+            }
+            Object[] copy = slots.clone();
+            copy[idx] = child;
+            return new Bitmap(bitmap, copy);
+        }
+
+        @Override
+        Node remove(Object a, int hash, int shift) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) return this;
+            int idx = index(bit);
+            Object slot = slots[idx];
+            if (slot instanceof Node) {
+                Node child = ((Node) slot).remove(a, hash, shift + BITS);
+                if (child == slot) return this;
+                if (child == null) return without(bit, idx);
+                Object single = child.single();
+                Object[] copy = slots.clone();
+                copy[idx] = single != null ? single : child;
+                return new Bitmap(bitmap, copy);
+            }
+            return slot.equals(a) ? without(bit, idx) : this;
+        }
+
+        private Bitmap without(int bit, int idx) {
+            if (slots.length == 1) return null;
+            Object[] copy = new Object[slots.length - 1];
+            System.arraycopy(slots, 0, copy, 0, idx);
+            System.arraycopy(slots, idx + 1, copy, idx, slots.length - idx - 1);
+            return new Bitmap(bitmap & ~bit, copy);
+        }
+
+        @Override
+        Object single() {
+            return slots.length == 1 && !(slots[0] instanceof Node) ? slots[0] : null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        <A> List<A> collect(List<A> acc) {
+            List<A> result = acc;
+            for (Object slot : slots) {
+                result = slot instanceof Node ? ((Node) slot).collect(result) : result.cons((A) slot);
+            }
+            return result;
+        }
+
+        private static Node pair(Object a1, int h1, Object a2, int h2, int shift) {
+            if (h1 == h2 || shift >= Integer.SIZE) {
+                return new Collision(h1, new Object[]{a1, a2});
+            }
+            int f1 = (h1 >>> shift) & MASK;
+            int f2 = (h2 >>> shift) & MASK;
+            if (f1 == f2) {
+                return new Bitmap(1 << f1, new Object[]{pair(a1, h1, a2, h2, shift + BITS)});
+            }
+            return new Bitmap((1 << f1) | (1 << f2), f1 < f2 ? new Object[]{a1, a2} : new Object[]{a2, a1});
+        }
+    }
+
+    private static final class Collision extends Node {
+        private final int hash;
+        private final Object[] elems;
+
+        private Collision(int hash, Object[] elems) {
+            this.hash = hash;
+            this.elems = elems;
+        }
+
+        @Override
+        boolean contains(Object a, int hash, int shift) {
+            if (hash != this.hash) return false;
+            for (Object e : elems) {
+                if (e.equals(a)) return true;
+            }
+            return false;
+        }
+
+        @Override
+        Node insert(Object a, int hash, int shift) {
+            if (hash != this.hash) {
+                return new Bitmap(1 << ((this.hash >>> shift) & MASK), new Object[]{this}).insert(a, hash, shift);
+            }
+            if (contains(a, hash, shift)) return this;
+            Object[] copy = Arrays.copyOf(elems, elems.length + 1);
+            copy[elems.length] = a;
+            return new Collision(this.hash, copy);
+        }
+
+        @Override
+        Node remove(Object a, int hash, int shift) {
+            if (hash != this.hash) return this;
+            for (int i = 0; i < elems.length; i++) {
+                if (elems[i].equals(a)) {
+                    Object[] copy = new Object[elems.length - 1];
+                    System.arraycopy(elems, 0, copy, 0, i);
+                    System.arraycopy(elems, i + 1, copy, i, elems.length - i - 1);
+                    return new Collision(this.hash, copy);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        Object single() {
+            return elems.length == 1 ? elems[0] : null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        <A> List<A> collect(List<A> acc) {
+            List<A> result = acc;
+            for (Object e : elems) {
+                result = result.cons((A) e);
+            }
+            return result;
+        }
+    }
+}
@@ -1,7 +1,23 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.StreamSupport;
 
 abstract class Stream<A> {
-    private static Stream EMPTY = new Empty();
+    @SuppressWarnings("rawtypes")
+    private static final Stream EMPTY = new Empty();
 
     public abstract A head();
 
@@ -78,33 +94,73 @@ abstract class Stream<A> {
         }
     }
 
+    /**
+     * A cell with a lazy head and a lazy tail.
+     * <p>
+     * Normally each supplier is evaluated exactly once, even when several threads access the cell
+     * at the same time. Whether it has been evaluated is not encoded in the result (which may be
+     * null) but in the supplier field itself, which is set to null after evaluation. Since the field
+     * is volatile and the result is written first, every reader that sees null also sees the result;
+     * after the first evaluation an access costs a single volatile read and no lock. Dropping the
+     * supplier also releases everything it captured.
+     * <p>
+     * With memoize == false the suppliers are evaluated again on every access and nothing is stored.
+     * This is meant for consumers that traverse the stream only once: holding on to the start of
+     * the stream then does not keep all visited cells alive.
+     */
     private static class Cons<A> extends Stream<A> {
-        private final Supplier<A> head;
+        private volatile Supplier<A> head;
         private A h;
-        private final Supplier<Stream<A>> tail;
+        private volatile Supplier<Stream<A>> tail;
         private Stream<A> t;
+        private final boolean memoize;
 
-        private Cons(Supplier<A> h, Supplier<Stream<A>> t) {
+        private Cons(Supplier<A> h, Supplier<Stream<A>> t, boolean memoize) {
             head = h;
             tail = t;
+            this.memoize = memoize;
         }
 
         @Override
         public A head() {
-            if (h == null) {
-                h = head.get();
+            Supplier<A> s = head;
+            if (s == null) {
+                return h;
+            }
+            if (!memoize) {
+                return s.get();
+            }
+            synchronized (this) {
+                if (head != null) {
+                    h = s.get();
+                    head = null;
+                }
             }
             return h;
         }
 
         @Override
         public Stream<A> tail() {
-            if (t == null) {
-                t = tail.get();
+            Supplier<Stream<A>> s = tail;
+            if (s == null) {
+                return t;
+            }
+            if (!memoize) {
+                return s.get();
+            }
+            synchronized (this) {
+                if (tail != null) {
+                    t = s.get();
+                    tail = null;
+                }
             }
             return t;
         }
 
+        private Stream<A> cell(Supplier<A> hd, Supplier<Stream<A>> tl) {
+            return new Cons<>(hd, tl, memoize);
+        }
+
         @Override
         public Boolean isEmpty() {
             return false;
@@ -119,7 +175,7 @@ abstract class Stream<A> {
         public Stream<A> take(int n) {
             return n <= 0
                     ? empty()
-                    : cons(head, () -> tail().take(n - 1));
+                    : cell(this::head, () -> tail().take(n - 1));
 
         }
 
@@ -130,16 +186,354 @@ abstract class Stream<A> {
 
         @Override
         public Stream<A> takeWhile(Function<A, Boolean> p) {
-            return p.apply(head()) ? cons(head, () -> tail().takeWhile(p)) : empty();
+            return p.apply(head()) ? cell(this::head, () -> tail().takeWhile(p)) : empty();
         }
     }
 
+    /**
+     * A first cell whose tail can be taken only once.
+     * <p>
+     * The tail is handed out and then forgotten, so a caller that keeps a reference to this cell
+     * (a lambda parameter, say) does not keep the rest of the stream reachable. Taking the tail a
+     * second time throws IllegalStateException. Used for single-pass sources such as FileSource.
+     */
+    private static final class Once<A> extends Stream<A> {
+        private final A head;
+        private Supplier<Stream<A>> tail;
+
+        private Once(A head, Supplier<Stream<A>> tail) {
+            this.head = head;
+            this.tail = tail;
+        }
+
+        @Override
+        public A head() {
+            return head;
+        }
+
+        @Override
+        public Stream<A> tail() {
+            Supplier<Stream<A>> s;
+            synchronized (this) {
+                s = tail;
+                if (s == null) {
+                    throw new IllegalStateException("tail of a single-pass stream already taken");
+                }
+                tail = null;
+            }
+            return s.get();
+        }
+
+        @Override
+        public Boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public Result<A> headOption() {
+            return Result.success(head);
+        }
+
+        @Override
+        public Stream<A> take(int n) {
+            return n <= 0 ? empty() : cons(() -> head, () -> tail().take(n - 1));
+        }
+
+        @Override
+        public Stream<A> drop(int n) {
+            return n <= 0 ? this : tail().drop(n - 1);
+        }
+
+        @Override
+        public Stream<A> takeWhile(Function<A, Boolean> p) {
+            return p.apply(head) ? cons(() -> head, () -> tail().takeWhile(p)) : empty();
+        }
+    }
+
+    /**
+     * A cell holding a whole chunk of elements in an array.
+     * <p>
+     * The elements values[from, to) are already computed; only the next chunk is lazy. tail() within
+     * a chunk merely creates a new view of the same array, and all views share the memoized next
+     * chunk. take, drop, takeWhile, dropWhile, toList and exists work directly on the arrays. Laziness
+     * is kept, only at chunk granularity: a chunk is computed as a whole as soon as its first element
+     * is needed.
+     */
+    private static class Chunk<A> extends Stream<A> {
+        private final Object[] values;
+        private final int from;
+        private final int to;
+        private final Memo<Stream<A>> next;
+
+        private Chunk(Object[] values, int from, int to, Memo<Stream<A>> next) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.next = next;
+        }
+
+        @SuppressWarnings("unchecked")
+        private A at(int i) {
+            return (A) values[i];
+        }
+
+        @Override
+        public A head() {
+            return at(from);
+        }
+
+        @Override
+        public Stream<A> tail() {
+            return from + 1 < to ? new Chunk<>(values, from + 1, to, next) : next.get();
+        }
+
+        @Override
+        public Boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public Result<A> headOption() {
+            return Result.success(head());
+        }
+
+        @Override
+        public Stream<A> take(int n) {
+            if (n <= 0) return empty();
+            int k = to - from;
+            return n <= k
+                    ? new Chunk<>(values, from, from + n, Memo.done(empty()))
+                    : new Chunk<>(values, from, to, new Memo<>(() -> next.get().take(n - k)));
+        }
+
+        @Override
+        public Stream<A> drop(int n) {
+            Stream<A> s = this;
+            int k = n;
+            while (k > 0 && s instanceof Chunk) {
+                Chunk<A> c = (Chunk<A>) s;
+                if (k < c.to - c.from) {
+                    return new Chunk<>(c.values, c.from + k, c.to, c.next);
+                }
+                k -= c.to - c.from;
+                s = c.next.get();
+            }
+            return k > 0 ? s.drop(k) : s;
+        }
+
+        @Override
+        public Stream<A> takeWhile(Function<A, Boolean> p) {
+            for (int i = from; i < to; i++) {
+                if (!p.apply(at(i))) {
+                    return i == from ? empty() : new Chunk<>(values, from, i, Memo.done(empty()));
+                }
+            }
+            return new Chunk<>(values, from, to, new Memo<>(() -> next.get().takeWhile(p)));
+        }
+
+        @Override
+        public Stream<A> dropWhile(Function<A, Boolean> p) {
+            Stream<A> s = this;
+            while (s instanceof Chunk) {
+                Chunk<A> c = (Chunk<A>) s;
+                for (int i = c.from; i < c.to; i++) {
+                    if (!p.apply(c.at(i))) {
+                        return i == c.from ? c : new Chunk<>(c.values, i, c.to, c.next);
+                    }
+                }
+                s = c.next.get();
+            }
+            return s.dropWhile(p);
+        }
+
+        @Override
+        public boolean exists(Function<A, Boolean> p) {
+            Stream<A> s = this;
+            while (s instanceof Chunk) {
+                Chunk<A> c = (Chunk<A>) s;
+                for (int i = c.from; i < c.to; i++) {
+                    if (p.apply(c.at(i))) return true;
+                }
+                s = c.next.get();
+            }
+            return s.exists(p);
+        }
+
+        @Override
+        <B> B foldCell(B acc, Function<B, Function<A, B>> f) {
+            B result = acc;
+            for (int i = from; i < to; i++) {
+                result = f.apply(result).apply(at(i));
+            }
+            return result;
+        }
+
+        @Override
+        Stream<A> rest() {
+            return next.get();
+        }
+
+        @Override
+        public List<A> toList() {
+            ArrayList<Object[]> chunks = new ArrayList<>();
+            ArrayList<int[]> bounds = new ArrayList<>();
+            Stream<A> s = this;
+            while (s instanceof Chunk) {
+                Chunk<A> c = (Chunk<A>) s;
+                chunks.add(c.values);
+                bounds.add(new int[]{c.from, c.to});
+                s = c.next.get();
+            }
+            List<A> list = s.toList();
+            for (int j = chunks.size() - 1; j >= 0; j--) {
+                Object[] values = chunks.get(j);
+                for (int i = bounds.get(j)[1] - 1; i >= bounds.get(j)[0]; i--) {
+                    @SuppressWarnings("unchecked")
+                    A a = (A) values[i];
+                    list = list.cons(a);
+                }
+            }
+            return list;
+        }
+    }
+
+    /**
+     * A lazy value evaluated exactly once, using the same scheme as Cons.
+     */
+    private static final class Memo<T> {
+        private volatile Supplier<T> supplier;
+        private T value;
+
+        private Memo(Supplier<T> supplier) {
+            this.supplier = supplier;
+        }
+
+        private static <T> Memo<T> done(T value) {
+            Memo<T> m = new Memo<>(null);
+            m.value = value;
+            return m;
+        }
+
+        private T get() {
+            Supplier<T> s = supplier;
+            if (s == null) {
+                return value;
+            }
+            synchronized (this) {
+                if (supplier != null) {
+                    value = s.get();
+                    supplier = null;
+                }
+            }
+            return value;
+        }
+    }
+
+    /**
+     * A stream that is not computed until it is first inspected, e.g. a chunk that has not been
+     * computed yet or a stream whose emptiness is not known yet. All operations are forwarded to
+     * the memoized stream; take and takeWhile stay deferred themselves.
+     */
+    private static final class Deferred<A> extends Stream<A> {
+        private final Memo<Stream<A>> stream;
+
+        private Deferred(Memo<Stream<A>> stream) {
+            this.stream = stream;
+        }
+
+        @Override
+        public A head() {
+            return stream.get().head();
+        }
+
+        @Override
+        public Stream<A> tail() {
+            return stream.get().tail();
+        }
+
+        @Override
+        public Boolean isEmpty() {
+            return stream.get().isEmpty();
+        }
+
+        @Override
+        public Result<A> headOption() {
+            return stream.get().headOption();
+        }
+
+        @Override
+        public Stream<A> take(int n) {
+            return n <= 0 ? empty() : new Deferred<>(new Memo<>(() -> stream.get().take(n)));
+        }
+
+        @Override
+        public Stream<A> drop(int n) {
+            return n <= 0 ? this : stream.get().drop(n);
+        }
+
+        @Override
+        public Stream<A> takeWhile(Function<A, Boolean> p) {
+            return new Deferred<>(new Memo<>(() -> stream.get().takeWhile(p)));
+        }
+
+        @Override
+        public Stream<A> dropWhile(Function<A, Boolean> p) {
+            return stream.get().dropWhile(p);
+        }
+
+        @Override
+        public boolean exists(Function<A, Boolean> p) {
+            return stream.get().exists(p);
+        }
+
+        @Override
+        <B> B foldCell(B acc, Function<B, Function<A, B>> f) {
+            return stream.get().foldCell(acc, f);
+        }
+
+        @Override
+        Stream<A> rest() {
+            return stream.get().rest();
+        }
+
+        @Override
+        public List<A> toList() {
+            return stream.get().toList();
+        }
+    }
+
+    /**
+     * Returns a chunked stream that starts with the elements of values and continues with the
+     * stream lazily computed by next. If values is empty, next is only evaluated when the stream
+     * is first inspected.
+     */
+    static <A> Stream<A> chunk(A[] values, Supplier<Stream<A>> next) {
+        return values.length == 0
+                ? new Deferred<>(new Memo<>(next))
+                : new Chunk<>(values.clone(), 0, values.length, new Memo<>(next));
+    }
+
     static <A> Stream<A> cons(Supplier<A> hd, Supplier<Stream<A>> tl) {
-        return new Cons<>(hd, tl);
+        return new Cons<>(hd, tl, true);
     }
 
     static <A> Stream<A> cons(Supplier<A> hd, Stream<A> tl) {
-        return new Cons<>(hd, () -> tl);
+        return new Cons<>(hd, () -> tl, true);
+    }
+
+    /**
+     * Like cons, but without memoization: head() and tail() evaluate their suppliers on every call.
+     * take and takeWhile on such a cell again return cells without memoization.
+     */
+    static <A> Stream<A> consUnmemoized(Supplier<A> hd, Supplier<Stream<A>> tl) {
+        return new Cons<>(hd, tl, false);
+    }
+
+    /**
+     * Returns a cell with the given head whose tail can be taken only once; see Once.
+     */
+    static <A> Stream<A> consOnce(A hd, Supplier<Stream<A>> tl) {
+        return new Once<>(hd, tl);
     }
 
     @SuppressWarnings("unchecked")
@@ -151,12 +545,284 @@ abstract class Stream<A> {
         return iterate(i, x -> x + 1);
     }
 
+    /**
+     * Like from(i), but computes the elements in chunks of chunkSize.
+     *
+     * @param i the first value
+     * @param chunkSize number of elements per chunk
+     */
+    public static Stream<Integer> from(int i, int chunkSize) {
+        return iterate(i, x -> x + 1, chunkSize);
+    }
+
     public List<A> toList() {
-        return List.reverse(toList(this, List.list()).eval());
+        return List.reverse(foldLeft(List.list(), acc -> acc::cons));
     }
 
-    private TailCall<List<A>> toList(Stream<A> s, List<A> acc) {
-        return s.isEmpty() ? TailCall.ret(acc) : TailCall.sus(() -> toList(s.tail(), acc.cons(s.head())));
+    /**
+     * Folds the stream from the left in a loop, in constant stack space.
+     * <p>
+     * Like all terminal operations below, the loop runs in this method itself and only
+     * references the current cell, so the consumed part of the stream can be collected
+     * while folding as long as the caller does not keep the head.
+     *
+     * @param z the initial value
+     * @param f the combining function
+     * @return the accumulated value
+     */
+    public <B> B foldLeft(B z, Function<B, Function<A, B>> f) {
+        B acc = z;
+        for (Stream<A> s = this; !s.isEmpty(); s = s.rest()) {
+            acc = s.foldCell(acc, f);
+        }
+        return acc;
+    }
+
+    /**
+     * Combines the elements with f, starting with the first one.
+     *
+     * @param f the combining function
+     * @return the combined value, or an empty result for an empty stream
+     */
+    public Result<A> reduce(Function<A, Function<A, A>> f) {
+        if (isEmpty()) {
+            return Result.empty();
+        }
+        A acc = head();
+        for (Stream<A> s = tail(); !s.isEmpty(); s = s.rest()) {
+            acc = s.foldCell(acc, f);
+        }
+        return Result.success(acc);
+    }
+
+    /**
+     * Counts the elements. Never returns for an infinite stream.
+     */
+    public long count() {
+        Function<Long, Function<A, Long>> inc = n -> a -> n + 1;
+        long n = 0;
+        for (Stream<A> s = this; !s.isEmpty(); s = s.rest()) {
+            n = s.foldCell(n, inc);
+        }
+        return n;
+    }
+
+    /**
+     * Applies e to each element in order.
+     *
+     * @param e the effect
+     */
+    public void forEach(Effect<A> e) {
+        Function<Void, Function<A, Void>> f = x -> a -> {
+            e.apply(a);
+            return null;
+        };
+        for (Stream<A> s = this; !s.isEmpty(); s = s.rest()) {
+            s.foldCell(null, f);
+        }
+    }
+
+    /**
+     * Returns the smallest element according to c; of several equal ones the first.
+     *
+     * @param c the comparator
+     */
+    public Result<A> min(Comparator<? super A> c) {
+        Function<A, Function<A, A>> f = x -> y -> c.compare(y, x) < 0 ? y : x;
+        if (isEmpty()) {
+            return Result.empty();
+        }
+        A acc = head();
+        for (Stream<A> s = tail(); !s.isEmpty(); s = s.rest()) {
+            acc = s.foldCell(acc, f);
+        }
+        return Result.success(acc);
+    }
+
+    /**
+     * Returns the largest element according to c; of several equal ones the first.
+     *
+     * @param c the comparator
+     */
+    public Result<A> max(Comparator<? super A> c) {
+        Function<A, Function<A, A>> f = x -> y -> c.compare(y, x) > 0 ? y : x;
+        if (isEmpty()) {
+            return Result.empty();
+        }
+        A acc = head();
+        for (Stream<A> s = tail(); !s.isEmpty(); s = s.rest()) {
+            acc = s.foldCell(acc, f);
+        }
+        return Result.success(acc);
+    }
+
+    /**
+     * Feeds the elements into a mutable container described by a java.util.stream.Collector,
+     * for example {@code stream.into(Collectors.toCollection(ArrayList::new))}.
+     *
+     * @param collector the collector
+     * @return the finished container
+     */
+    public <C, R> R into(Collector<? super A, C, R> collector) {
+        BiConsumer<C, ? super A> add = collector.accumulator();
+        Function<C, Function<A, C>> f = c -> a -> {
+            add.accept(c, a);
+            return c;
+        };
+        C container = collector.supplier().get();
+        for (Stream<A> s = this; !s.isEmpty(); s = s.rest()) {
+            s.foldCell(container, f);
+        }
+        return collector.finisher().apply(container);
+    }
+
+    public static int sum(Stream<Integer> s) {
+        Function<Integer, Function<Integer, Integer>> f = acc -> x -> acc + x;
+        int acc = 0;
+        for (; !s.isEmpty(); s = s.rest()) {
+            acc = s.foldCell(acc, f);
+        }
+        return acc;
+    }
+
+    public static double sumDouble(Stream<Double> s) {
+        Function<Double, Function<Double, Double>> f = acc -> x -> acc + x;
+        double acc = 0.0;
+        for (; !s.isEmpty(); s = s.rest()) {
+            acc = s.foldCell(acc, f);
+        }
+        return acc;
+    }
+
+    /**
+     * Returns an iterator that walks the stream lazily, referencing only the current cell.
+     */
+    public Iterator<A> iterator() {
+        return new Iterator<>() {
+            private Stream<A> current = Stream.this;
+
+            @Override
+            public boolean hasNext() {
+                return !current.isEmpty();
+            }
+
+            @Override
+            public A next() {
+                if (current.isEmpty()) throw new NoSuchElementException();
+                A a = current.head();
+                current = current.tail();
+                return a;
+            }
+        };
+    }
+
+    /**
+     * Returns an ordered spliterator of unknown size that evaluates the stream on demand.
+     * Splitting hands out batches of already evaluated elements, as for any sequential source.
+     */
+    public Spliterator<A> spliterator() {
+        return new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.IMMUTABLE) {
+            private Stream<A> current = Stream.this;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super A> action) {
+                if (current.isEmpty()) return false;
+                action.accept(current.head());
+                current = current.tail();
+                return true;
+            }
+
+            @Override
+            public void forEachRemaining(Consumer<? super A> action) {
+                Function<Void, Function<A, Void>> f = x -> a -> {
+                    action.accept(a);
+                    return null;
+                };
+                Stream<A> s = current;
+                current = empty();
+                for (; !s.isEmpty(); s = s.rest()) {
+                    s.foldCell(null, f);
+                }
+            }
+        };
+    }
+
+    public java.util.stream.Stream<A> toJavaStream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a stream over the remaining elements of the iterator. Each element is taken from
+     * the iterator exactly once, when its cell is created.
+     *
+     * @param it the iterator
+     */
+    public static <A> Stream<A> fromIterator(Iterator<? extends A> it) {
+        if (!it.hasNext()) {
+            return empty();
+        }
+        A a = it.next();
+        return cons(() -> a, () -> fromIterator(it));
+    }
+
+    public static <A> Stream<A> fromIterable(Iterable<? extends A> xs) {
+        return fromIterator(xs.iterator());
+    }
+
+    /**
+     * Returns a stream that pulls the elements of xs lazily; not even the first element is
+     * pulled before the stream is inspected. xs is closed, running its onClose handlers (for
+     * Files.lines, closing the file), as soon as it is exhausted or pulling an element fails.
+     * A caller that may stop early should still close xs itself, e.g. with try-with-resources.
+     *
+     * @param xs the java.util.stream.Stream
+     */
+    public static <A> Stream<A> fromJavaStream(java.util.stream.Stream<? extends A> xs) {
+        return new Deferred<>(new Memo<>(() -> pull(xs.iterator(), xs)));
+    }
+
+    private static <A> Stream<A> pull(Iterator<? extends A> it, java.util.stream.BaseStream<?, ?> source) {
+        A a;
+        try {
+            if (!it.hasNext()) {
+                source.close();
+                return empty();
+            }
+            a = it.next();
+        } catch (RuntimeException | Error e) {
+            try {
+                source.close();
+            } catch (RuntimeException c) {
+                e.addSuppressed(c);
+            }
+            throw e;
+        }
+        return cons(() -> a, () -> pull(it, source));
+    }
+
+    /**
+     * Returns a collector that gathers the elements into a single chunk of a Stream.
+     */
+    public static <A> Collector<A, ?, Stream<A>> collector() {
+        return Collector.<A, ArrayList<A>, Stream<A>>of(ArrayList::new, ArrayList::add, (l, r) -> {
+            l.addAll(r);
+            return l;
+        }, l -> l.isEmpty() ? empty() : new Chunk<>(l.toArray(), 0, l.size(), Memo.done(empty())));
+    }
+
+    /**
+     * Folds the elements of the current cell into acc, i.e. all elements of a chunk.
+     * Only for non-empty streams.
+     */
+    <B> B foldCell(B acc, Function<B, Function<A, B>> f) {
+        return f.apply(acc).apply(head());
+    }
+
+    /**
+     * The stream after the current cell, matching foldCell.
+     */
+    Stream<A> rest() {
+        return tail();
     }
 
     public TailCall<Stream<A>> drop(Stream<A> acc, int n) {
@@ -197,6 +863,295 @@ abstract class Stream<A> {
                 : TailCall.sus(() -> exists(s.tail(), p));
     }
 
+    /**
+     * Returns a stream applying f to each element. Nothing is evaluated
+     * until the elements of the resulting stream are requested.
+     *
+     * @param f the function applied to each element
+     */
+    public <B> Stream<B> map(Function<A, B> f) {
+        return isEmpty() ? empty() : cons(() -> f.apply(head()), () -> tail().map(f));
+    }
+
+    /**
+     * Returns a stream of the elements satisfying p. The stream is
+     * traversed up to the first matching element; the rest stays lazy.
+     * Long runs of rejected elements are skipped with a trampoline.
+     *
+     * @param p a function returning a bool
+     */
+    public Stream<A> filter(Function<A, Boolean> p) {
+        Stream<A> s = dropWhile(x -> !p.apply(x));
+        return s.isEmpty() ? empty() : cons(s::head, () -> s.tail().filter(p));
+    }
+
+    /**
+     * Returns this stream followed by the stream supplied by s,
+     * which is only evaluated once this stream is exhausted.
+     *
+     * @param s the supplier of the stream to append
+     */
+    public Stream<A> append(Supplier<Stream<A>> s) {
+        return isEmpty() ? s.get() : cons(this::head, () -> tail().append(s));
+    }
+
+    /**
+     * Returns the concatenation of the streams produced by f for each element.
+     * Elements for which f returns an empty stream are skipped with a trampoline.
+     *
+     * @param f the function producing a stream for each element
+     */
+    public <B> Stream<B> flatMap(Function<A, Stream<B>> f) {
+        return flatMap(this, f).eval();
+    }
+
+    private static <A, B> TailCall<Stream<B>> flatMap(Stream<A> s, Function<A, Stream<B>> f) {
+        if (s.isEmpty()) {
+            return TailCall.ret(empty());
+        }
+        Stream<B> inner = f.apply(s.head());
+        return inner.isEmpty()
+                ? TailCall.sus(() -> flatMap(s.tail(), f))
+                : TailCall.ret(cons(inner::head, () -> inner.tail().append(() -> s.tail().flatMap(f))));
+    }
+
+    /**
+     * Combines the elements of two streams pairwise with f.
+     * The result is as long as the shorter of both streams.
+     *
+     * @param other the second stream
+     * @param f the combining function
+     */
+    public <B, C> Stream<C> zipWith(Stream<B> other, Function<A, Function<B, C>> f) {
+        return isEmpty() || other.isEmpty()
+                ? empty()
+                : cons(() -> f.apply(head()).apply(other.head()), () -> tail().zipWith(other.tail(), f));
+    }
+
+    /**
+     * Pairs the elements of two streams.
+     *
+     * @param other the second stream
+     */
+    public <B> Stream<Tuple<A, B>> zip(Stream<B> other) {
+        return zipWith(other, a -> b -> new Tuple<>(a, b));
+    }
+
+    /**
+     * Splits the stream into lists of n elements; the last one may be shorter.
+     * Each group is only built when it or a later one is requested, and only
+     * the group being emitted is buffered.
+     *
+     * @param n the group size
+     */
+    public Stream<List<A>> grouped(int n) {
+        if (n < 1) throw new IllegalArgumentException("n must be positive");
+        return sliding(n, n);
+    }
+
+    /**
+     * Returns windows of size elements, each starting step elements after the previous one.
+     * The last window ends with the last element of the stream and may be shorter than size;
+     * if step is larger than size, the elements in between are skipped. A window is only
+     * built when it or a later one is requested, and the stream is traversed once.
+     *
+     * @param size the window size
+     * @param step the distance between the starts of two windows
+     */
+    public Stream<List<A>> sliding(int size, int step) {
+        if (size < 1 || step < 1) throw new IllegalArgumentException("size and step must be positive");
+        return sliding(this, size, step);
+    }
+
+    private static <A> Stream<List<A>> sliding(Stream<A> s, int size, int step) {
+        if (s.isEmpty()) {
+            return empty();
+        }
+        Memo<Batch<A>> window = new Memo<>(() -> window(s, size, step));
+        return cons(() -> window.get().elements, () -> {
+            Stream<A> next = window.get().rest;
+            return sliding(step > size ? next.drop(step - size) : next, size, step);
+        });
+    }
+
+    /**
+     * Reads the window starting at s. The rest is where the next window starts, or the
+     * element after the window if step is larger than size; it is empty after the last window.
+     * For step smaller than size the start of the next window is remembered on the way, so
+     * the overlapping part is not traversed again.
+     */
+    private static <A> Batch<A> window(Stream<A> s, int size, int step) {
+        Object[] window = new Object[size];
+        int n = 0;
+        Stream<A> rest = s;
+        Stream<A> next = null;
+        for (; n < size && !rest.isEmpty(); rest = rest.tail()) {
+            if (n == step) next = rest;
+            window[n++] = rest.head();
+        }
+        return new Batch<>(toList(window, n), rest.isEmpty() ? empty() : next == null ? rest : next, null);
+    }
+
+    /**
+     * Splits the stream into consecutive batches whose total weight does not exceed maxWeight.
+     * An element heavier than maxWeight on its own forms a batch by itself. A batch is only
+     * built when it or a later one is requested, and weight is applied once per element.
+     *
+     * @param weight the weight of an element
+     * @param maxWeight the maximal weight of a batch
+     */
+    public Stream<List<A>> batchBy(Function<A, Integer> weight, long maxWeight) {
+        return batchBy(this, null, weight, maxWeight);
+    }
+
+    /**
+     * firstWeight is the weight of the head of s if the previous batch has already computed it, else null.
+     */
+    private static <A> Stream<List<A>> batchBy(Stream<A> s, Integer firstWeight,
+                                               Function<A, Integer> weight, long maxWeight) {
+        if (s.isEmpty()) {
+            return empty();
+        }
+        Memo<Batch<A>> batch = new Memo<>(() -> batch(s, firstWeight, weight, maxWeight));
+        return cons(() -> batch.get().elements, () -> {
+            Batch<A> b = batch.get();
+            return batchBy(b.rest, b.restWeight, weight, maxWeight);
+        });
+    }
+
+    private static <A> Batch<A> batch(Stream<A> s, Integer firstWeight, Function<A, Integer> weight, long maxWeight) {
+        Object[] buffer = new Object[16];
+        int n = 0;
+        long total = 0;
+        Integer w = firstWeight;
+        Stream<A> rest = s;
+        for (; !rest.isEmpty(); rest = rest.tail(), w = null) {
+            A a = rest.head();
+            if (w == null) w = weight.apply(a);
+            if (n > 0 && total + w > maxWeight) break;
+            if (n == buffer.length) buffer = Arrays.copyOf(buffer, n * 2);
+            buffer[n++] = a;
+            total += w;
+        }
+        return new Batch<>(toList(buffer, n), rest, w);
+    }
+
+    /**
+     * A batch produced by sliding or batchBy, the stream after it, and the weight
+     * of the first element of that stream if it was already computed (else null).
+     */
+    private static final class Batch<A> {
+        private final List<A> elements;
+        private final Stream<A> rest;
+        private final Integer restWeight;
+
+        private Batch(List<A> elements, Stream<A> rest, Integer restWeight) {
+            this.elements = elements;
+            this.rest = rest;
+            this.restWeight = restWeight;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A> List<A> toList(Object[] values, int n) {
+        List<A> list = List.list();
+        for (int i = n - 1; i >= 0; i--) {
+            list = list.cons((A) values[i]);
+        }
+        return list;
+    }
+
+    /**
+     * Returns the first element satisfying p, evaluating the stream only up to that element.
+     *
+     * @param p a function returning a bool
+     */
+    public Result<A> find(Function<A, Boolean> p) {
+        return filter(p).headOption();
+    }
+
+    /**
+     * Maps f over the stream in parallel on a shared pool of daemon threads that grows as needed,
+     * so blocking work in f does not starve other users of a fixed-size pool.
+     *
+     * @see #parMap(int, Function, Executor)
+     */
+    public <B> Stream<Result<B>> parMap(int n, Function<A, B> f) {
+        return parMap(n, f, ParMapPool.POOL);
+    }
+
+    /**
+     * Maps f over the stream, evaluating up to n upcoming elements concurrently on executor.
+     * The results keep the order of the source. Only the lookahead window is submitted; each
+     * further element is submitted when the result stream is advanced past the oldest one.
+     * An exception thrown by f ends up as a failure in the corresponding element.
+     * <p>
+     * The window is a queue of two lists (oldest first, newest first) holding at most n futures,
+     * so consumed results are released no matter how long the stream is.
+     *
+     * @param n the size of the lookahead window
+     * @param f the function applied to each element
+     * @param executor the executor running f
+     * @return a stream of the results in source order
+     */
+    public <B> Stream<Result<B>> parMap(int n, Function<A, B> f, Executor executor) {
+        if (n < 1) throw new IllegalArgumentException("n must be positive");
+        return parMap(this, List.list(), List.list(), 0, n, f, executor);
+    }
+
+    private static <A, B> Stream<Result<B>> parMap(Stream<A> s, List<CompletableFuture<Result<B>>> front,
+                                                   List<CompletableFuture<Result<B>>> back, int size,
+                                                   int n, Function<A, B> f, Executor executor) {
+        Stream<A> rest = s;
+        List<CompletableFuture<Result<B>>> newest = back;
+        int k = size;
+        for (; k < n && !rest.isEmpty(); k++) {
+            A a = rest.head();
+            newest = newest.cons(CompletableFuture.supplyAsync(() -> apply(f, a), executor));
+            rest = rest.tail();
+        }
+        if (k == 0) {
+            return empty();
+        }
+        List<CompletableFuture<Result<B>>> oldest = front.isEmpty() ? List.reverse(newest) : front;
+        List<CompletableFuture<Result<B>>> pending = front.isEmpty() ? List.list() : newest;
+        CompletableFuture<Result<B>> first = oldest.head();
+        Stream<A> next = rest;
+        int remaining = k - 1;
+        return cons(first::join, () -> parMap(next, oldest.tail(), pending, remaining, n, f, executor));
+    }
+
+    /**
+     * Default executor for parMap: cached daemon threads, created on first use.
+     */
+    private static final class ParMapPool {
+        private static final ExecutorService POOL = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "stream-parMap");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static <A, B> Result<B> apply(Function<A, B> f, A a) {
+        try {
+            return Result.success(f.apply(a));
+        } catch (RuntimeException e) {
+            return Result.failure(e);
+        }
+    }
+
+    /**
+     * Builds a stream from a state z. f returns the next element together
+     * with the next state, or an empty result to end the stream.
+     *
+     * @param z the initial state
+     * @param f the function computing the next element and state
+     * @return a stream of the produced elements
+     */
+    public static <A, S> Stream<A> unfold(S z, Function<S, Result<Tuple<A, S>>> f) {
+        return f.apply(z).map(x -> cons(() -> x.fst, () -> unfold(x.snd, f))).getOrElse(empty());
+    }
+
     /**
      * This method takes a object as its parameter and returns an infinite stream of the same object.
      *
@@ -219,6 +1174,45 @@ abstract class Stream<A> {
         return cons(() -> seed, () -> iterate(f.apply(seed), f));
     }
 
+    /**
+     * Like iterate(seed, f), but computes the elements in chunks of chunkSize.
+     * Nothing is computed by this call; a chunk is computed as a whole as soon as
+     * its first element is requested, and the following chunk stays lazy.
+     *
+     * @param seed the first value
+     * @param f the function which generates the next value
+     * @param chunkSize number of elements per chunk
+     * @return a chunked stream based on the seed and function
+     */
+    public static <A> Stream<A> iterate(A seed, Function<A, A> f, int chunkSize) {
+        if (chunkSize < 1) throw new IllegalArgumentException("chunkSize must be positive");
+        return new Deferred<>(new Memo<>(() -> iterateChunk(seed, f, chunkSize)));
+    }
+
+    /**
+     * Computes the chunk starting with seed; the next chunk is computed by the tail of its last element.
+     */
+    private static <A> Stream<A> iterateChunk(A seed, Function<A, A> f, int chunkSize) {
+        Object[] values = new Object[chunkSize];
+        values[0] = seed;
+        for (int i = 1; i < chunkSize; i++) {
+            @SuppressWarnings("unchecked")
+            A prev = (A) values[i - 1];
+            values[i] = f.apply(prev);
+        }
+        @SuppressWarnings("unchecked")
+        A last = (A) values[chunkSize - 1];
+        return new Chunk<>(values, 0, chunkSize, new Memo<>(() -> iterateChunk(f.apply(last), f, chunkSize)));
+    }
+
+    /**
+     * Like iterate, but without memoization. Suited to consumers that traverse the stream exactly
+     * once; every further traversal computes the values again.
+     */
+    public static <A> Stream<A> iterateUnmemoized(A seed, Function<A, A> f) {
+        return consUnmemoized(() -> seed, () -> iterateUnmemoized(f.apply(seed), f));
+    }
+
 
 
 }
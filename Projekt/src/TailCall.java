@@ -1,18 +1,42 @@
+import java.util.ArrayDeque;
+import java.util.function.Function;
+
+/**
+ * Trampolin fuer Rekursion ohne wachsenden Aufrufstack.
+ * <p>
+ * Ein TailCall ist entweder ein fertiges Ergebnis (ret), ein noch ausstehender Schritt (sus) oder
+ * eine Verkettung mit einer Fortsetzung (flatMap/map). Mit flatMap laesst sich auch Rekursion
+ * ausdruecken, die nicht endstaendig ist: das Ergebnis des rekursiven Aufrufs wird an eine
+ * Fortsetzung weitergereicht, statt auf dem Aufrufstack darauf zu warten. eval() haelt die
+ * offenen Fortsetzungen auf einem eigenen Stack im Heap.
+ * <p>
+ * Suspend ist selbst das funktionale Interface, das sus entgegennimmt: das Lambda aus
+ * {@code TailCall.sus(() -> ...)} ist also bereits der Schritt, pro Sprung entsteht nur ein Objekt.
+ * Das Interface ist versiegelt; nur Suspend ist offen, damit Lambdas es implementieren koennen. eval()
+ * kennt damit alle Arten von Schritten.
+ */
+public sealed interface TailCall<T> permits TailCall.Return, TailCall.Suspend, TailCall.FlatMap {
+
+    TailCall<T> resume();
+
+    T eval();
+
+    boolean isSuspend();
+
+    default <U> TailCall<U> flatMap(Function<T, TailCall<U>> f) {
+        return new FlatMap<>(this, f);
+    }
 
-
-import java.util.function.Supplier;
-
-public abstract class TailCall<T> {
-    public abstract TailCall<T> resume();
-
-    public abstract T eval();
-
-    public abstract boolean isSuspend();
-
-    private TailCall() {
+    default <U> TailCall<U> map(Function<T, U> f) {
+        return flatMap(t -> ret(f.apply(t)));
     }
 
-    private static class Return<T> extends TailCall<T> {
+    final class Return<T> implements TailCall<T> {
+        @SuppressWarnings("rawtypes")
+        private static final Return NULL = new Return<>(null);
+        private static final Return<Boolean> TRUE = new Return<>(true);
+        private static final Return<Boolean> FALSE = new Return<>(false);
+
         private final T t;
 
         private Return(T t) {
@@ -35,20 +59,31 @@ public abstract class TailCall<T> {
         }
     }
 
-    private static class Suspend<T> extends TailCall<T> {
-        private final Supplier<TailCall<T>> resume;
+    @FunctionalInterface
+    non-sealed interface Suspend<T> extends TailCall<T> {
+        @Override
+        default T eval() {
+            return run(this);
+        }
+
+        @Override
+        default boolean isSuspend() {
+            return true;
+        }
+    }
+
+    final class FlatMap<T, U> implements TailCall<U> {
+        private final TailCall<T> source;
+        private final Function<T, TailCall<U>> f;
 
-        private Suspend(Supplier<TailCall<T>> resume) {
-            this.resume = resume;
+        private FlatMap(TailCall<T> source, Function<T, TailCall<U>> f) {
+            this.source = source;
+            this.f = f;
         }
 
         @Override
-        public T eval() {
-            TailCall<T> tailRec = this;
-            while (tailRec.isSuspend()) {
-                tailRec = tailRec.resume();
-            }
-            return tailRec.eval();
+        public U eval() {
+            return run(this);
         }
 
         @Override
@@ -56,17 +91,60 @@ public abstract class TailCall<T> {
             return true;
         }
 
+        /**
+         * Ein einzelner Schritt; verschachtelte flatMaps werden dabei nach rechts umgehaengt.
+         */
         @Override
-        public TailCall<T> resume() {
-            return resume.get();
+        @SuppressWarnings("unchecked")
+        public TailCall<U> resume() {
+            if (source instanceof Return) {
+                return f.apply(source.eval());
+            }
+            if (source instanceof FlatMap) {
+                FlatMap<Object, T> inner = (FlatMap<Object, T>) source;
+                return new FlatMap<>(inner.source, x -> inner.f.apply(x).flatMap(f));
+            }
+            return new FlatMap<>(source.resume(), f);
+        }
+    }
+
+    /**
+     * Wertet aus, ohne den Aufrufstack wachsen zu lassen. Fortsetzungen aus flatMap werden auf einem
+     * Stack im Heap abgelegt; solange nur ret und sus vorkommen, wird dieser Stack nie angelegt.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T run(TailCall<T> start) {
+        TailCall<Object> current = (TailCall<Object>) start;
+        ArrayDeque<Function<Object, TailCall<Object>>> continuations = null;
+        while (true) {
+            if (current instanceof Suspend) {
+                current = current.resume();
+            } else if (current instanceof Return) {
+                Object value = ((Return<Object>) current).t;
+                if (continuations == null || continuations.isEmpty()) {
+                    return (T) value;
+                }
+                current = continuations.pop().apply(value);
+            } else {
+                FlatMap<Object, Object> fm = (FlatMap<Object, Object>) current;
+                if (continuations == null) {
+                    continuations = new ArrayDeque<>();
+                }
+                continuations.push(fm.f);
+                current = fm.source;
+            }
         }
     }
 
-    public static <T> Return<T> ret(T t) {
-        return new Return<>(t);
+    @SuppressWarnings("unchecked")
+    static <T> TailCall<T> ret(T t) {
+        return t == null ? Return.NULL
+                : t == Boolean.TRUE ? (Return<T>) Return.TRUE
+                : t == Boolean.FALSE ? (Return<T>) Return.FALSE
+                : new Return<>(t);
     }
 
-    public static <T> Suspend<T> sus(Supplier<TailCall<T>> s) {
-        return new Suspend<>(s);
+    static <T> TailCall<T> sus(Suspend<T> s) {
+        return s;
     }
 }
@@ -0,0 +1,190 @@
+import java.util.ArrayList;
+
+/**
+ * Eine zusammensetzbare Transformation von A-Werten zu B-Werten, die unabhaengig von der Quelle
+ * beschrieben und spaeter in einem einzigen Durchlauf ueber eine List, einen Stream oder ein Array
+ * ausgefuehrt wird.
+ * <p>
+ * Jede Stufe (map, filter, ...) verpackt nur die nachfolgende Senke. Beim Ausfuehren wird daraus
+ * eine Kette von Senken, durch die jedes Element einzeln geschoben wird; Zwischenlisten entstehen
+ * nicht. Liefert eine Senke false, wird der Durchlauf abgebrochen und die Quelle nicht weiter gelesen.
+ * Zustand einzelner Stufen (take, drop, dropWhile) wird pro Durchlauf neu angelegt, dieselbe
+ * Transformation kann also beliebig oft wiederverwendet werden.
+ * <p>
+ * Beispiel: {@code Transducer.<Integer>identity().map(x -> x * 2).filter(x -> x > 10).take(3).toList(xs)}
+ */
+public final class Transducer<A, B> {
+
+    /**
+     * Nimmt ein Element entgegen und liefert false, wenn keine weiteren Elemente mehr gewuenscht sind.
+     */
+    public interface Sink<A> {
+        boolean accept(A a);
+    }
+
+    private final Function<Sink<B>, Sink<A>> wrap;
+
+    private Transducer(Function<Sink<B>, Sink<A>> wrap) {
+        this.wrap = wrap;
+    }
+
+    public static <A> Transducer<A, A> identity() {
+        return new Transducer<>(down -> down);
+    }
+
+    // ----------------------------------------------------------------------Stufen
+
+    public <C> Transducer<A, C> map(Function<B, C> f) {
+        return new Transducer<>(down -> wrap.apply(b -> down.accept(f.apply(b))));
+    }
+
+    public Transducer<A, B> filter(Function<B, Boolean> p) {
+        return new Transducer<>(down -> wrap.apply(b -> !p.apply(b) || down.accept(b)));
+    }
+
+    public <C> Transducer<A, C> flatMap(Function<B, List<C>> f) {
+        return new Transducer<>(down -> wrap.apply(b -> {
+            for (List<C> l = f.apply(b); !l.isEmpty(); l = l.tail()) {
+                if (!down.accept(l.head())) return false;
+            }
+            return true;
+        }));
+    }
+
+    public Transducer<A, B> takeWhile(Function<B, Boolean> p) {
+        return new Transducer<>(down -> wrap.apply(b -> p.apply(b) && down.accept(b)));
+    }
+
+    public Transducer<A, B> dropWhile(Function<B, Boolean> p) {
+        return new Transducer<>(down -> {
+            boolean[] dropping = {true};
+            return wrap.apply(b -> {
+                if (dropping[0] && p.apply(b)) return true;
+                dropping[0] = false;
+                return down.accept(b);
+            });
+        });
+    }
+
+    public Transducer<A, B> take(int n) {
+        return new Transducer<>(down -> {
+            int[] left = {n};
+            return wrap.apply(b -> left[0]-- > 0 && down.accept(b) && left[0] > 0);
+        });
+    }
+
+    public Transducer<A, B> drop(int n) {
+        return new Transducer<>(down -> {
+            int[] left = {n};
+            return wrap.apply(b -> {
+                if (left[0] > 0) {
+                    left[0]--;
+                    return true;
+                }
+                return down.accept(b);
+            });
+        });
+    }
+
+    public <C> Transducer<A, C> andThen(Transducer<B, C> next) {
+        return new Transducer<>(down -> wrap.apply(next.wrap.apply(down)));
+    }
+
+    // ----------------------------------------------------------------------Ausfuehren
+
+    public <R> R fold(List<A> xs, R s, Function<R, Function<B, R>> f) {
+        Fold<B, R> acc = new Fold<>(s, f);
+        run(xs, wrap.apply(acc));
+        return acc.value;
+    }
+
+    public <R> R fold(Stream<A> xs, R s, Function<R, Function<B, R>> f) {
+        Fold<B, R> acc = new Fold<>(s, f);
+        run(xs, wrap.apply(acc));
+        return acc.value;
+    }
+
+    public <R> R fold(A[] xs, R s, Function<R, Function<B, R>> f) {
+        Fold<B, R> acc = new Fold<>(s, f);
+        run(xs, wrap.apply(acc));
+        return acc.value;
+    }
+
+    public List<B> toList(List<A> xs) {
+        ArrayList<B> buffer = new ArrayList<>();
+        run(xs, wrap.apply(buffer::add));
+        return toList(buffer);
+    }
+
+    public List<B> toList(Stream<A> xs) {
+        ArrayList<B> buffer = new ArrayList<>();
+        run(xs, wrap.apply(buffer::add));
+        return toList(buffer);
+    }
+
+    public List<B> toList(A[] xs) {
+        ArrayList<B> buffer = new ArrayList<>();
+        run(xs, wrap.apply(buffer::add));
+        return toList(buffer);
+    }
+
+    public void forEach(List<A> xs, Effect<B> e) {
+        run(xs, wrap.apply(b -> {
+            e.apply(b);
+            return true;
+        }));
+    }
+
+    public void forEach(Stream<A> xs, Effect<B> e) {
+        run(xs, wrap.apply(b -> {
+            e.apply(b);
+            return true;
+        }));
+    }
+
+    public void forEach(A[] xs, Effect<B> e) {
+        run(xs, wrap.apply(b -> {
+            e.apply(b);
+            return true;
+        }));
+    }
+
+    private static <A> void run(List<A> xs, Sink<A> sink) {
+        for (List<A> l = xs; !l.isEmpty() && sink.accept(l.head()); l = l.tail()) {
+        }
+    }
+
+    private static <A> void run(Stream<A> xs, Sink<A> sink) {
+        for (Stream<A> s = xs; !s.isEmpty() && sink.accept(s.head()); s = s.tail()) {
+        }
+    }
+
+    private static <A> void run(A[] xs, Sink<A> sink) {
+        for (int i = 0; i < xs.length && sink.accept(xs[i]); i++) {
+        }
+    }
+
+    private static <B> List<B> toList(ArrayList<B> buffer) {
+        List<B> list = List.list();
+        for (int i = buffer.size() - 1; i >= 0; i--) {
+            list = list.cons(buffer.get(i));
+        }
+        return list;
+    }
+
+    private static final class Fold<B, R> implements Sink<B> {
+        private final Function<R, Function<B, R>> f;
+        private R value;
+
+        private Fold(R s, Function<R, Function<B, R>> f) {
+            this.value = s;
+            this.f = f;
+        }
+
+        @Override
+        public boolean accept(B b) {
+            value = f.apply(value).apply(b);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,321 @@
+import java.util.Arrays;
+
+/**
+ * Persistenter Vektor als bit-partitionierter Trie mit 32 Eintraegen pro Knoten.
+ * <p>
+ * Die Elemente liegen in den Blaettern, innere Knoten verweisen auf Kindknoten.
+ * Ein Index wird in Gruppen zu je 5 Bit zerlegt, jede Gruppe waehlt auf einer Ebene
+ * den naechsten Knoten aus. Damit sind get, update, append und prepend in
+ * O(log32 n) moeglich, was fuer alle praktischen Groessen hoechstens 6 Schritte sind.
+ * <p>
+ * Aenderungen kopieren nur den Pfad von der Wurzel zum betroffenen Blatt, alle
+ * anderen Knoten werden mit der Ausgangsversion geteilt. Der Vektor belegt den
+ * Bereich [origin, origin + size) im Trie; prepend verschiebt origin nach links.
+ * <p>
+ * take und drop verkleinern den Bereich und raeumen dabei den Trie auf: Teilbaeume, die
+ * ganz ausserhalb des Bereichs liegen, werden auf dem Randpfad ausgehaengt, und liegt der
+ * Bereich ganz in einem Kind der Wurzel, wird dieses Kind zur neuen Wurzel. Ein Vektor haelt
+ * so hoechstens das Blatt an jedem Rand mit bis zu 31 unsichtbaren Elementen fest, und seine
+ * Tiefe richtet sich nach der aktuellen Laenge, nicht nach der Zahl aller je angehaengten
+ * Elemente; als Queue (append und tail) benutzt waechst er also nicht.
+ */
+public final class Vector<A> {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    @SuppressWarnings("rawtypes")
+    private static final Vector EMPTY = new Vector<>(new Object[WIDTH], 0, 0, 0);
+
+    private final Object[] root;
+    private final int shift;
+    private final int origin;
+    private final int size;
+
+    private Vector(Object[] root, int shift, int origin, int size) {
+        this.root = root;
+        this.shift = shift;
+        this.origin = origin;
+        this.size = size;
+    }
+
+    // -----------------------------------------------------------Instanzmethoden
+
+    public int length() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public A get(int i) {
+        checkIndex(i);
+        return (A) leafFor(origin + i)[(origin + i) & MASK];
+    }
+
+    public A head() {
+        if (isEmpty()) throw new IllegalStateException("head called on empty vector");
+        return get(0);
+    }
+
+    public A last() {
+        if (isEmpty()) throw new IllegalStateException("last called on empty vector");
+        return get(size - 1);
+    }
+
+    public Vector<A> tail() {
+        if (isEmpty()) throw new IllegalStateException("tail called on empty vector");
+        return drop(1);
+    }
+
+    public Vector<A> init() {
+        if (isEmpty()) throw new IllegalStateException("init called on empty vector");
+        return take(size - 1);
+    }
+
+    public Result<A> headOption() {
+        return isEmpty() ? Result.empty() : Result.success(get(0));
+    }
+
+    public Vector<A> update(int i, A a) {
+        checkIndex(i);
+        return new Vector<>(set(root, shift, origin + i, a), shift, origin, size);
+    }
+
+    /**
+     * Haengt ein Element hinten an. Ist der Trie voll, wird eine neue Wurzel
+     * eingezogen, die den alten Trie als erstes Kind enthaelt.
+     */
+    public Vector<A> append(A a) {
+        int raw = origin + size;
+        if (raw < capacity(shift)) {
+            return new Vector<>(set(root, shift, raw, a), shift, origin, size + 1);
+        }
+        checkGrowth(shift);
+        Object[] newRoot = new Object[WIDTH];
+        newRoot[0] = root;
+        return new Vector<>(set(newRoot, shift + BITS, raw, a), shift + BITS, origin, size + 1);
+    }
+
+    /**
+     * Stellt ein Element voran. Ist links von origin kein Platz mehr, wird eine neue
+     * Wurzel eingezogen, die den alten Trie als zweites Kind enthaelt; der ganze
+     * Bereich des ersten Kindes steht danach fuer weitere prepends zur Verfuegung.
+     */
+    public Vector<A> prepend(A a) {
+        if (origin > 0) {
+            return new Vector<>(set(root, shift, origin - 1, a), shift, origin - 1, size + 1);
+        }
+        checkGrowth(shift);
+        int offset = capacity(shift);
+        Object[] newRoot = new Object[WIDTH];
+        newRoot[1] = root;
+        return new Vector<>(set(newRoot, shift + BITS, offset - 1, a), shift + BITS, offset - 1, size + 1);
+    }
+
+    /**
+     * Liefert die ersten n Elemente in O(log32 n). Nur der rechte Randpfad wird kopiert.
+     */
+    public Vector<A> take(int n) {
+        return n >= size ? this : n <= 0 ? empty() : trimmed(root, shift, origin, n);
+    }
+
+    /**
+     * Liefert den Vektor ohne die ersten n Elemente in O(log32 n). Nur der linke Randpfad wird kopiert.
+     */
+    public Vector<A> drop(int n) {
+        return n <= 0 ? this : n >= size ? empty() : trimmed(root, shift, origin + n, size - n);
+    }
+
+    public <B> Vector<B> map(Function<A, B> f) {
+        Object[] out = new Object[size];
+        int i = 0;
+        for (int raw = origin, end = origin + size; raw < end; ) {
+            Object[] leaf = leafFor(raw);
+            for (int j = raw & MASK; j < WIDTH && raw < end; j++, raw++) {
+                out[i++] = f.apply(elem(leaf, j));
+            }
+        }
+        return fromArray(out, out.length);
+    }
+
+    public Vector<A> filter(Function<A, Boolean> p) {
+        Object[] out = new Object[size];
+        int i = 0;
+        for (int raw = origin, end = origin + size; raw < end; ) {
+            Object[] leaf = leafFor(raw);
+            for (int j = raw & MASK; j < WIDTH && raw < end; j++, raw++) {
+                A a = elem(leaf, j);
+                if (p.apply(a)) out[i++] = a;
+            }
+        }
+        return i == size ? this : fromArray(out, i);
+    }
+
+    public <B> B foldl(Function<B, Function<A, B>> f, B s) {
+        B acc = s;
+        for (int raw = origin, end = origin + size; raw < end; ) {
+            Object[] leaf = leafFor(raw);
+            for (int j = raw & MASK; j < WIDTH && raw < end; j++, raw++) {
+                acc = f.apply(acc).apply(elem(leaf, j));
+            }
+        }
+        return acc;
+    }
+
+    public Result<A> find(Function<A, Boolean> p) {
+        for (int raw = origin, end = origin + size; raw < end; ) {
+            Object[] leaf = leafFor(raw);
+            for (int j = raw & MASK; j < WIDTH && raw < end; j++, raw++) {
+                A a = elem(leaf, j);
+                if (p.apply(a)) return Result.success(a);
+            }
+        }
+        return Result.empty();
+    }
+
+    /**
+     * Die Elemente als List in O(1): eine Sicht auf diesen Vektor, die nichts kopiert (List.VectorView).
+     * tail, take und drop der Sicht sind O(1), head O(log32 n).
+     */
+    public List<A> toList() {
+        return List.view(this);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int raw = origin, end = origin + size; raw < end; ) {
+            Object[] leaf = leafFor(raw);
+            for (int j = raw & MASK; j < WIDTH && raw < end; j++, raw++) {
+                sb.append(raw == origin ? "" : ", ").append(Vector.<A>elem(leaf, j));
+            }
+        }
+        return sb.append("]").toString();
+    }
+
+    // ----------------------------------------------------------------------Trie
+
+    private Object[] leafFor(int raw) {
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(raw >>> level) & MASK];
+        }
+        return node;
+    }
+
+    private static Object[] set(Object[] node, int level, int raw, Object a) {
+        Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+        int idx = (raw >>> level) & MASK;
+        copy[idx] = level == 0 ? a : set((Object[]) copy[idx], level - BITS, raw, a);
+        return copy;
+    }
+
+    /**
+     * Ein Vektor ueber [origin, origin + size), dessen Trie nichts ausserhalb dieses Bereichs festhaelt.
+     * Solange der Bereich ganz in einem Kind der Wurzel liegt, wird dieses Kind zur Wurzel.
+     */
+    private static <A> Vector<A> trimmed(Object[] root, int shift, int origin, int size) {
+        while (shift > 0 && origin >>> shift == (origin + size - 1) >>> shift) {
+            root = (Object[]) root[origin >>> shift];
+            origin &= (1 << shift) - 1;
+            shift -= BITS;
+        }
+        return new Vector<>(clear(root, shift, origin, origin + size - 1), shift, origin, size);
+    }
+
+    /**
+     * Haengt in node alle Teilbaeume aus, die ganz ausserhalb von [first, last] liegen. Kopiert wird nur
+     * entlang der beiden Randpfade und nur, wo dort tatsaechlich etwas auszuhaengen ist. Blaetter
+     * bleiben unveraendert.
+     */
+    private static Object[] clear(Object[] node, int level, int first, int last) {
+        if (level == 0) return node;
+        int lo = (first >>> level) & MASK;
+        int hi = (last >>> level) & MASK;
+        int below = (1 << level) - 1;
+        Object[] left = clear((Object[]) node[lo], level - BITS, first, lo == hi ? last : first | below);
+        Object[] right = lo == hi ? left : clear((Object[]) node[hi], level - BITS, last & ~below, last);
+        boolean outside = false;
+        for (int i = 0; i < WIDTH && !outside; i++) {
+            outside = (i < lo || i > hi) && node[i] != null;
+        }
+        if (!outside && left == node[lo] && right == node[hi]) return node;
+        Object[] copy = new Object[WIDTH];
+        System.arraycopy(node, lo, copy, lo, hi - lo + 1);
+        copy[lo] = left;
+        copy[hi] = right;
+        return copy;
+    }
+
+    private static int capacity(int shift) {
+        return shift + BITS >= 31 ? Integer.MAX_VALUE : 1 << (shift + BITS);
+    }
+
+    private static void checkGrowth(int shift) {
+        if (shift + BITS >= 30) throw new IllegalStateException("vector too large");
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException("index " + i + " for vector of length " + size);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A> A elem(Object[] leaf, int j) {
+        return (A) leaf[j];
+    }
+
+    // ----------------------------------------------------------------------Klassenmethoden
+
+    @SuppressWarnings("unchecked")
+    public static <A> Vector<A> empty() {
+        return EMPTY;
+    }
+
+    @SafeVarargs
+    public static <A> Vector<A> vector(A... a) {
+        return fromArray(Arrays.copyOf(a, a.length, Object[].class), a.length);
+    }
+
+    /**
+     * Ist list eine Sicht aus toList, wird deren Trie in O(log32 n) geteilt. Jede andere List wird in
+     * O(n) kopiert, eine Cons-Liste kennt ihre Elemente nur durch Ablaufen.
+     */
+    public static <A> Vector<A> fromList(List<A> list) {
+        if (list instanceof List.VectorView) {
+            return ((List.VectorView<A>) list).vector();
+        }
+        Object[] a = new Object[list.length()];
+        int i = 0;
+        for (List<A> l = list; !l.isEmpty(); l = l.tail()) {
+            a[i++] = l.head();
+        }
+        return fromArray(a, a.length);
+    }
+
+    /**
+     * Baut den Trie ebenenweise von den Blaettern aus auf, ohne Pfade zu kopieren.
+     */
+    private static <A> Vector<A> fromArray(Object[] a, int n) {
+        if (n == 0) return empty();
+        Object[][] level = new Object[(n + MASK) >>> BITS][];
+        for (int i = 0; i < level.length; i++) {
+            level[i] = Arrays.copyOfRange(a, i << BITS, (i << BITS) + WIDTH);
+            if (((i + 1) << BITS) > n) Arrays.fill(level[i], n - (i << BITS), WIDTH, null);
+        }
+        int shift = 0;
+        while (level.length > 1) {
+            Object[][] parents = new Object[(level.length + MASK) >>> BITS][];
+            for (int i = 0; i < parents.length; i++) {
+                parents[i] = new Object[WIDTH];
+                System.arraycopy(level, i << BITS, parents[i], 0, Math.min(WIDTH, level.length - (i << BITS)));
+            }
+            level = parents;
+            shift += BITS;
+        }
+        return new Vector<>(level[0], shift, 0, n);
+    }
+}